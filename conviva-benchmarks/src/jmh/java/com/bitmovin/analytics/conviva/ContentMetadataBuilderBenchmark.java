@@ -0,0 +1,63 @@
+package com.bitmovin.analytics.conviva;
+
+import com.conviva.sdk.ConvivaSdkConstants;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Lives in the integration package as ContentMetadataBuilder is package-private
+@State(Scope.Thread)
+public class ContentMetadataBuilderBenchmark {
+    private ContentMetadataBuilder builder;
+    private int streamUrlIndex;
+
+    @Setup
+    public void setUp() {
+        builder = new ContentMetadataBuilder();
+        builder.setApplicationName("Benchmark");
+        builder.setViewerId("viewer");
+        builder.setAssetName("Benchmark asset");
+        builder.setStreamType(ConvivaSdkConstants.StreamType.VOD);
+        builder.setDuration(600);
+        builder.setStreamUrl("https://cdn.example.com/stream.mpd");
+
+        Map<String, String> custom = new HashMap<>();
+        custom.put("contentType", "episode");
+        custom.put("series", "Benchmark series");
+        builder.setCustom(custom);
+
+        MetadataOverrides overrides = new MetadataOverrides();
+        Map<String, String> customOverrides = new HashMap<>();
+        customOverrides.put("season", "1");
+        overrides.setCustom(customOverrides);
+        overrides.setDefaultResource("cdn");
+        builder.setOverrides(overrides);
+        builder.build();
+    }
+
+    @Benchmark
+    public Map<String, Object> buildUnchanged() {
+        return builder.build();
+    }
+
+    @Benchmark
+    public Map<String, Object> buildAfterStreamUrlChange() {
+        builder.setStreamUrl((streamUrlIndex++ & 1) == 0
+                ? "https://cdn.example.com/stream.mpd"
+                : "https://backup.example.com/stream.mpd");
+        return builder.build();
+    }
+
+    @Benchmark
+    public Map<String, Object> buildChangesAfterStreamUrlChange() {
+        builder.setStreamUrl((streamUrlIndex++ & 1) == 0
+                ? "https://cdn.example.com/stream.mpd"
+                : "https://backup.example.com/stream.mpd");
+        return builder.buildChanges();
+    }
+}
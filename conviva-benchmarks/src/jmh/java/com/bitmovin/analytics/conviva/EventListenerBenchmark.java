@@ -0,0 +1,56 @@
+package com.bitmovin.analytics.conviva;
+
+import com.bitmovin.analytics.conviva.benchmarks.StubPlayer;
+import com.bitmovin.player.api.event.PlayerEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static com.bitmovin.analytics.conviva.benchmarks.ConvivaStubs.createIntegration;
+import static com.bitmovin.analytics.conviva.benchmarks.ConvivaStubs.createVastAdStartedEvent;
+import static com.bitmovin.analytics.conviva.benchmarks.StubPlayerKt.createVideoQuality;
+
+/**
+ * Measures the handling of player events by an integration with an active session, from the player
+ * listener to the (stubbed) Conviva SDK call.
+ */
+@State(Scope.Thread)
+public class EventListenerBenchmark {
+    private StubPlayer player;
+    private PlayerEvent.TimeChanged timeChanged;
+    private PlayerEvent.AdStarted adStarted;
+    private PlayerEvent.AdFinished adFinished;
+    private PlayerEvent.VideoPlaybackQualityChanged videoPlaybackQualityChanged;
+    private double time;
+
+    @Setup
+    public void setUp() {
+        player = new StubPlayer();
+        player.setVideoQuality(createVideoQuality("1080p", 1920, 1080, 6_000_000));
+        createIntegration(player, new ConvivaConfig());
+        timeChanged = new PlayerEvent.TimeChanged(0.0);
+        adStarted = createVastAdStartedEvent();
+        adFinished = new PlayerEvent.AdFinished(null);
+        videoPlaybackQualityChanged = new PlayerEvent.VideoPlaybackQualityChanged(null, null);
+    }
+
+    @Benchmark
+    public void timeChanged() {
+        time += 0.25;
+        player.setTime(time);
+        player.emit(timeChanged);
+    }
+
+    @Benchmark
+    public void clientSideAdStartedAndFinished() {
+        player.emit(adStarted);
+        player.emit(adFinished);
+    }
+
+    @Benchmark
+    public void videoPlaybackQualityChanged() {
+        player.emit(videoPlaybackQualityChanged);
+    }
+}
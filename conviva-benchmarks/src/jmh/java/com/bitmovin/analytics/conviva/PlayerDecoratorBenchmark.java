@@ -0,0 +1,50 @@
+package com.bitmovin.analytics.conviva;
+
+import com.bitmovin.analytics.conviva.benchmarks.StubPlayer;
+import com.bitmovin.player.api.media.video.quality.VideoQuality;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+
+import static com.bitmovin.analytics.conviva.benchmarks.StubPlayerKt.createVideoQuality;
+
+@State(Scope.Thread)
+public class PlayerDecoratorBenchmark {
+    private StubPlayer player;
+    private DefaultPlayerDecorator playerDecorator;
+    private VideoQuality[] videoQualities;
+    private int videoQualityIndex;
+
+    @Setup
+    public void setUp() {
+        player = new StubPlayer();
+        playerDecorator = new DefaultPlayerDecorator(player);
+        videoQualities = new VideoQuality[]{
+                createVideoQuality("1080p", 1920, 1080, 6_000_000),
+                createVideoQuality("720p", 1280, 720, 3_000_000),
+                createVideoQuality("480p", 854, 480, 1_200_000),
+        };
+        player.setVideoQuality(videoQualities[0]);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public HashMap<String, Object[]> getPlaybackVideoData() {
+        return playerDecorator.getPlaybackVideoData();
+    }
+
+    @Benchmark
+    public VideoQualitySnapshot getPlaybackVideoQuality() {
+        return playerDecorator.getPlaybackVideoQuality();
+    }
+
+    @Benchmark
+    public VideoQualitySnapshot getPlaybackVideoQualityWhileSwitching() {
+        player.setVideoQuality(videoQualities[videoQualityIndex++ % videoQualities.length]);
+        return playerDecorator.getPlaybackVideoQuality();
+    }
+}
@@ -0,0 +1,59 @@
+package com.bitmovin.analytics.conviva.ssai;
+
+import com.bitmovin.analytics.conviva.DefaultPlayerDecorator;
+import com.bitmovin.analytics.conviva.benchmarks.StubPlayer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.bitmovin.analytics.conviva.benchmarks.ConvivaStubs.createAdAnalyticsStub;
+import static com.bitmovin.analytics.conviva.benchmarks.ConvivaStubs.createVideoAnalyticsStub;
+import static com.bitmovin.analytics.conviva.benchmarks.StubPlayerKt.createVideoQuality;
+
+/**
+ * Measures server side ad reporting, which converts the ad info into Conviva ad info on every call.
+ */
+@State(Scope.Thread)
+public class SsaiApiBenchmark {
+    private DefaultSsaiApi ssai;
+    private SsaiApi.AdInfo adInfo;
+
+    @Setup
+    public void setUp() {
+        StubPlayer player = new StubPlayer();
+        player.setVideoQuality(createVideoQuality("1080p", 1920, 1080, 6_000_000));
+        ssai = new DefaultSsaiApi(createVideoAnalyticsStub(), createAdAnalyticsStub());
+        ssai.setPlayer(new DefaultPlayerDecorator(player));
+
+        adInfo = new SsaiApi.AdInfo();
+        adInfo.setTitle("Ad title");
+        adInfo.setDuration(15.0);
+        adInfo.setId("ad-id");
+        adInfo.setAdSystem("Ad system");
+        adInfo.setPosition(AdPosition.MIDROLL);
+        adInfo.setAdStitcher("Stitcher");
+        Map<String, Object> additionalMetadata = new HashMap<>();
+        additionalMetadata.put("c3.ad.creativeId", "creative-id");
+        adInfo.setAdditionalMetadata(additionalMetadata);
+
+        ssai.reportAdBreakStarted();
+    }
+
+    @Benchmark
+    public void adStartedAndFinished() {
+        ssai.reportAdStarted(adInfo);
+        ssai.reportAdFinished();
+    }
+
+    @Benchmark
+    public void updateAdInfo() {
+        ssai.reportAdStarted(adInfo);
+        ssai.updateAdInfo(adInfo);
+        ssai.reportAdFinished();
+    }
+}
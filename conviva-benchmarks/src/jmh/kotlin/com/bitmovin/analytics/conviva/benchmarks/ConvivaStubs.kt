@@ -0,0 +1,83 @@
+@file:JvmName("ConvivaStubs")
+
+package com.bitmovin.analytics.conviva.benchmarks
+
+import com.bitmovin.analytics.conviva.ConvivaAnalyticsIntegration
+import com.bitmovin.analytics.conviva.ConvivaConfig
+import com.bitmovin.analytics.conviva.MetadataOverrides
+import com.bitmovin.player.api.advertising.Ad
+import com.bitmovin.player.api.advertising.AdSourceType
+import com.bitmovin.player.api.advertising.vast.AdSystem
+import com.bitmovin.player.api.advertising.vast.VastAdData
+import com.bitmovin.player.api.event.PlayerEvent
+import com.conviva.sdk.ConvivaAdAnalytics
+import com.conviva.sdk.ConvivaSdkConstants
+import com.conviva.sdk.ConvivaVideoAnalytics
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.`when`
+import org.mockito.Mockito.withSettings
+
+/**
+ * Conviva SDK stubs which do not record invocations. Their constant overhead is part of every
+ * measurement, so only compare results produced with the same stubs.
+ */
+fun createVideoAnalyticsStub(): ConvivaVideoAnalytics {
+    val videoAnalytics = mock(ConvivaVideoAnalytics::class.java, withSettings().stubOnly())
+    `when`(videoAnalytics.metadataInfo).thenReturn(
+            mapOf(
+                    ConvivaSdkConstants.ASSET_NAME to "Benchmark asset",
+                    ConvivaSdkConstants.IS_LIVE to ConvivaSdkConstants.StreamType.VOD.toString(),
+                    ConvivaSdkConstants.VIEWER_ID to "viewer",
+            )
+    )
+    return videoAnalytics
+}
+
+fun createAdAnalyticsStub(): ConvivaAdAnalytics = mock(ConvivaAdAnalytics::class.java, withSettings().stubOnly())
+
+/**
+ * Creates an integration with an active session attached to the given player.
+ */
+fun createIntegration(player: StubPlayer, config: ConvivaConfig = ConvivaConfig()): ConvivaAnalyticsIntegration {
+    val integration = ConvivaAnalyticsIntegration(
+            player,
+            "",
+            null,
+            config,
+            createVideoAnalyticsStub(),
+            createAdAnalyticsStub(),
+            null,
+    )
+    integration.updateContentMetadata(MetadataOverrides().apply { assetName = "Benchmark asset" })
+    integration.initializeSession()
+    return integration
+}
+
+fun createVastAdStartedEvent(): PlayerEvent.AdStarted {
+    val adSystem = mock(AdSystem::class.java, withSettings().stubOnly())
+    `when`(adSystem.name).thenReturn("Ad system")
+    val vastAdData = mock(VastAdData::class.java, withSettings().stubOnly())
+    `when`(vastAdData.adTitle).thenReturn("Ad title")
+    `when`(vastAdData.adDescription).thenReturn("Ad description")
+    `when`(vastAdData.adSystem).thenReturn(adSystem)
+    `when`(vastAdData.wrapperAdSystems).thenReturn(listOf(adSystem, adSystem))
+    `when`(vastAdData.wrapperAdIds).thenReturn(arrayOf("wrapper-1", "wrapper-2"))
+    `when`(vastAdData.wrapperCreativeIds).thenReturn(listOf("creative-1", "creative-2"))
+    val ad = mock(Ad::class.java, withSettings().stubOnly())
+    `when`(ad.id).thenReturn("ad-id")
+    `when`(ad.mediaFileUrl).thenReturn("https://cdn.example.com/ad.mp4")
+    `when`(ad.width).thenReturn(1280)
+    `when`(ad.height).thenReturn(720)
+    `when`(ad.data).thenReturn(vastAdData)
+
+    return PlayerEvent.AdStarted(
+            clientType = AdSourceType.Bitmovin,
+            clickThroughUrl = "https://example.com",
+            duration = 15.0,
+            timeOffset = 0.0,
+            position = "pre",
+            skipOffset = 5.0,
+            ad = ad,
+            indexInQueue = 0,
+    )
+}
@@ -0,0 +1,57 @@
+package com.bitmovin.analytics.conviva.benchmarks
+
+import com.bitmovin.player.api.Player
+import com.bitmovin.player.api.event.Event
+import com.bitmovin.player.api.event.EventListener
+import com.bitmovin.player.api.media.video.quality.VideoQuality
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.withSettings
+
+/**
+ * A [Player] which allows emitting events to its listeners and setting the values read on the
+ * benchmarked paths. All other methods return default values.
+ */
+@Suppress("UNCHECKED_CAST")
+class StubPlayer : Player by mock(Player::class.java, withSettings().stubOnly()) {
+    private val listeners = HashMap<Class<out Event>, MutableList<EventListener<Event>>>()
+
+    var time: Double = 0.0
+    var videoQuality: VideoQuality? = null
+
+    override val currentTime: Double
+        get() = time
+
+    override val playbackVideoData: VideoQuality?
+        get() = videoQuality
+
+    override fun <E : Event> on(eventClass: Class<E>, eventListener: EventListener<in E>) {
+        listeners.getOrPut(eventClass) { ArrayList() }.add(eventListener as EventListener<Event>)
+    }
+
+    override fun <E : Event> off(eventClass: Class<E>, eventListener: EventListener<in E>) {
+        listeners[eventClass]?.remove(eventListener as EventListener<Event>)
+    }
+
+    override fun <E : Event> off(eventListener: EventListener<in E>) {
+        listeners.values.forEach { it.remove(eventListener as EventListener<Event>) }
+    }
+
+    fun emit(event: Event) {
+        val eventListeners = listeners[event.javaClass] ?: return
+        for (index in eventListeners.indices) {
+            eventListeners[index].onEvent(event)
+        }
+    }
+}
+
+fun createVideoQuality(id: String, width: Int, height: Int, bitrate: Int) = VideoQuality(
+        id = id,
+        label = id,
+        bitrate = bitrate,
+        averageBitrate = bitrate,
+        peakBitrate = bitrate,
+        codec = "avc1.640028",
+        frameRate = 30F,
+        width = width,
+        height = height,
+)
@@ -0,0 +1,14 @@
+package android.app;
+
+/**
+ * Replaces the <code>android.app.ActivityManager</code> of the Android stub jar, which predates
+ * API 19 and lacks <code>isLowRamDevice()</code>. Benchmarks run the full tracking profile.
+ */
+public class ActivityManager {
+    ActivityManager() {
+    }
+
+    public boolean isLowRamDevice() {
+        return false;
+    }
+}
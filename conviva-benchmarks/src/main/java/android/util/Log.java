@@ -0,0 +1,30 @@
+package android.util;
+
+/**
+ * Replaces the throwing <code>android.util.Log</code> of the Android stub jar on the JVM.
+ * Messages are discarded so that logging does not distort the measurements.
+ */
+public final class Log {
+    private Log() {
+    }
+
+    public static int v(String tag, String msg) {
+        return 0;
+    }
+
+    public static int d(String tag, String msg) {
+        return 0;
+    }
+
+    public static int i(String tag, String msg) {
+        return 0;
+    }
+
+    public static int w(String tag, String msg) {
+        return 0;
+    }
+
+    public static int e(String tag, String msg) {
+        return 0;
+    }
+}
@@ -0,0 +1,98 @@
+package com.bitmovin.analytics.conviva;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable base of the ad info reported to Conviva for every ad.
+ * <p>
+ * Holds the <code>"NA"</code> defaults, the fields which are constant for an integration and the
+ * fields copied from the main content metadata. Each ad is assembled from a copy of the template
+ * overlaid with the fields of the ad. The template is only rebuilt if the copied main content fields
+ * changed, e.g. for a new session.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class AdInfoTemplate {
+    private static final String NOT_AVAILABLE = "NA";
+    private static final Map<String, Object> DEFAULTS = createDefaults();
+
+    private final Map<String, Object> entries;
+    private final String[] mainContentKeys;
+
+    private AdInfoTemplate(Map<String, Object> entries, String[] mainContentKeys) {
+        this.entries = entries;
+        this.mainContentKeys = mainContentKeys;
+    }
+
+    /**
+     * @param fields          Fields which are the same for all ads of an integration, e.g. the ad
+     *                        technology. They take precedence over the defaults.
+     * @param mainContentKeys Keys of the main content metadata which are copied into the ad info if
+     *                        present. Must not overlap with <code>fields</code>.
+     */
+    public static AdInfoTemplate create(Map<String, Object> fields, String... mainContentKeys) {
+        Map<String, Object> entries = new HashMap<>(DEFAULTS);
+        entries.putAll(fields);
+        return new AdInfoTemplate(Collections.unmodifiableMap(entries), mainContentKeys.clone());
+    }
+
+    /**
+     * Returns a template with the main content fields taken from <code>mainContentMetadata</code>,
+     * or this template if they did not change.
+     */
+    public AdInfoTemplate withMainContent(@Nullable Map<String, Object> mainContentMetadata) {
+        if (mainContentMetadata == null || hasMainContent(mainContentMetadata)) {
+            return this;
+        }
+        Map<String, Object> newEntries = new HashMap<>(entries);
+        for (String key : mainContentKeys) {
+            if (mainContentMetadata.containsKey(key)) {
+                newEntries.put(key, mainContentMetadata.get(key));
+            } else {
+                newEntries.remove(key);
+            }
+        }
+        return new AdInfoTemplate(Collections.unmodifiableMap(newEntries), mainContentKeys);
+    }
+
+    /**
+     * Assembles a new mutable ad info from the template entries and the given ad fields, which take
+     * precedence over the template.
+     */
+    public HashMap<String, Object> newAdInfo(Map<String, ?> adFields) {
+        int size = entries.size() + adFields.size();
+        // sized to hold all entries without rehashing
+        HashMap<String, Object> adInfo = new HashMap<>((int) (size / 0.75f) + 1);
+        adInfo.putAll(entries);
+        adInfo.putAll(adFields);
+        return adInfo;
+    }
+
+    private boolean hasMainContent(Map<String, Object> mainContentMetadata) {
+        for (String key : mainContentKeys) {
+            boolean present = mainContentMetadata.containsKey(key);
+            if (present != entries.containsKey(key)) {
+                return false;
+            }
+            if (present && !ObjectUtils.equals(mainContentMetadata.get(key), entries.get(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Map<String, Object> createDefaults() {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("c3.ad.id", NOT_AVAILABLE);
+        defaults.put("c3.ad.system", NOT_AVAILABLE);
+        defaults.put("c3.ad.mediaFileApiFramework", NOT_AVAILABLE);
+        defaults.put("c3.ad.firstAdSystem", NOT_AVAILABLE);
+        defaults.put("c3.ad.firstAdId", NOT_AVAILABLE);
+        defaults.put("c3.ad.firstCreativeId", NOT_AVAILABLE);
+        return Collections.unmodifiableMap(defaults);
+    }
+}
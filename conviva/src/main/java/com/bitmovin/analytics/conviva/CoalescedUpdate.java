@@ -0,0 +1,62 @@
+package com.bitmovin.analytics.conviva;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Coalesces repeated requests of an update into a single update after a delay.
+ * <p>
+ * The first request schedules the update, further requests until it ran are dropped. Without a delay
+ * every request runs the update immediately. Delayed updates run on the main thread, which the player
+ * emits its events on.
+ */
+class CoalescedUpdate {
+    private final long delayMs;
+    private final Runnable update;
+    private final Runnable scheduledUpdate = () -> {
+        updateScheduled = false;
+        runUpdate();
+    };
+    @Nullable
+    private Handler handler;
+    private boolean updateScheduled = false;
+
+    CoalescedUpdate(long delayMs, Runnable update) {
+        this.delayMs = delayMs;
+        this.update = update;
+    }
+
+    void request() {
+        if (delayMs <= 0) {
+            update.run();
+            return;
+        }
+        if (!updateScheduled) {
+            updateScheduled = true;
+            getHandler().postDelayed(scheduledUpdate, delayMs);
+        }
+    }
+
+    /**
+     * Drops a scheduled update.
+     */
+    void cancel() {
+        if (updateScheduled && handler != null) {
+            handler.removeCallbacks(scheduledUpdate);
+        }
+        updateScheduled = false;
+    }
+
+    private void runUpdate() {
+        update.run();
+    }
+
+    private Handler getHandler() {
+        if (handler == null) {
+            handler = new Handler(Looper.getMainLooper());
+        }
+        return handler;
+    }
+}
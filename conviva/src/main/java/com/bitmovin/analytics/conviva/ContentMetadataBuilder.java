@@ -1,22 +1,33 @@
 package com.bitmovin.analytics.conviva;
 
-import android.util.Log;
-
+import com.bitmovin.analytics.conviva.helper.IntegrationLogger;
 import com.conviva.sdk.ConvivaSdkConstants;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 class ContentMetadataBuilder {
 
     private static final String TAG = ContentMetadataBuilder.class.getSimpleName();
 
     private Map<String, Object> contentInfo;
+    // keys of contentInfo which changed since the last build
+    private final Set<String> dirtyKeys = new HashSet<>();
+    // unmodifiable full copy of contentInfo, shared with readers until an entry of contentInfo changes
+    private volatile Map<String, Object> snapshot;
+    // set whenever one of the inputs changed since the last update of contentInfo
+    private boolean inputsChanged = true;
 
     // internal metadata fields to enable merging / overriding
     private MetadataOverrides metadataOverrides;
     private MetadataOverrides metadata;
     private boolean playbackStarted;
+    // merged views of the internal and override tags, null until built after a change of their inputs
+    private Map<String, String> mergedCustom;
+    private Map<String, Object> mergedAdditionalStandardTags;
 
     ContentMetadataBuilder() {
         contentInfo = new HashMap<>();
@@ -29,68 +40,125 @@ class ContentMetadataBuilder {
      */
     public void setOverrides(MetadataOverrides metadataOverrides) {
         if (playbackStarted) {
-            Log.i(TAG, "[ Conviva Analytics ] Playback has started. Only some metadata attributes will be updated");
+            IntegrationLogger.i(TAG, "[ Conviva Analytics ] Playback has started. Only some metadata attributes will be updated");
         }
 
         this.metadataOverrides = metadataOverrides;
+        invalidateMergedTags();
+        inputsChanged = true;
     }
 
     public void setPlaybackStarted(boolean value) {
         playbackStarted = value;
     }
 
+    /**
+     * Builds the full content metadata. All entries are considered as reported afterwards.
+     * <p>
+     * The returned map is an unmodifiable full copy of the content metadata. Consecutive calls return
+     * the same copy until an entry changed, so readers can hold it without copying it again.
+     */
     public Map<String, Object> build() {
+        updateContentInfo();
+        dirtyKeys.clear();
+
+        Map<String, Object> currentSnapshot = snapshot;
+        if (currentSnapshot == null) {
+            currentSnapshot = Collections.unmodifiableMap(new HashMap<>(contentInfo));
+            snapshot = currentSnapshot;
+        }
+        return currentSnapshot;
+    }
+
+    /**
+     * Builds the content metadata and returns only the entries which changed since the last call to
+     * {@link #build()} or {@link #buildChanges()}. Returns an empty map if nothing changed.
+     */
+    public Map<String, Object> buildChanges() {
+        updateContentInfo();
+        if (dirtyKeys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Object> changes = new HashMap<>();
+        for (String key : dirtyKeys) {
+            changes.put(key, contentInfo.get(key));
+        }
+        dirtyKeys.clear();
+        return Collections.unmodifiableMap(changes);
+    }
+
+    private void updateContentInfo() {
+        if (!inputsChanged) {
+            return;
+        }
+        inputsChanged = false;
 
         if (!playbackStarted) {
             if (!contentInfo.containsKey(ConvivaSdkConstants.ASSET_NAME)) {
-                contentInfo.put(ConvivaSdkConstants.ASSET_NAME, getAssetName());
+                put(ConvivaSdkConstants.ASSET_NAME, getAssetName());
             }
 
-            contentInfo.put(ConvivaSdkConstants.VIEWER_ID, getViewerId());
+            put(ConvivaSdkConstants.VIEWER_ID, getViewerId());
 
             ConvivaSdkConstants.StreamType streamType = ObjectUtils.defaultIfNull(
                     metadataOverrides.getStreamType(),
                     metadata.getStreamType());
             boolean isLive = streamType == ConvivaSdkConstants.StreamType.LIVE;
-            contentInfo.put(ConvivaSdkConstants.IS_LIVE, isLive);
+            put(ConvivaSdkConstants.IS_LIVE, isLive);
 
             String applicationName = ObjectUtils.defaultIfNull(
                     metadataOverrides.getApplicationName(),
                     metadata.getApplicationName());
-            contentInfo.put(ConvivaSdkConstants.PLAYER_NAME, applicationName);
+            put(ConvivaSdkConstants.PLAYER_NAME, applicationName);
 
             Integer duration = ObjectUtils.defaultIfNull(
                     metadataOverrides.getDuration(),
                     metadata.getDuration());
             int convivaDuration = duration != null ? duration : -1;
             if (convivaDuration > 0) {
-                contentInfo.put(ConvivaSdkConstants.DURATION, convivaDuration);
+                put(ConvivaSdkConstants.DURATION, convivaDuration);
             }
 
-            contentInfo.putAll(getCustom());
-            contentInfo.putAll(getAdditionalStandardTags());
+            putAll(getCustom());
+            putAll(getAdditionalStandardTags());
         }
 
         Integer frameRate = ObjectUtils.defaultIfNull(
                 metadataOverrides.getEncodedFrameRate(),
                 metadata.getEncodedFrameRate());
-        contentInfo.put(ConvivaSdkConstants.ENCODED_FRAMERATE, frameRate != null ? frameRate : -1);
+        put(ConvivaSdkConstants.ENCODED_FRAMERATE, frameRate != null ? frameRate : -1);
 
         String defaultResource = ObjectUtils.defaultIfNull(
                 metadataOverrides.getDefaultResource(),
                 metadata.getDefaultResource());
-        contentInfo.put(ConvivaSdkConstants.DEFAULT_RESOURCE, defaultResource);
+        put(ConvivaSdkConstants.DEFAULT_RESOURCE, defaultResource);
 
         String streamUrl = ObjectUtils.defaultIfNull(
                 metadataOverrides.getStreamUrl(),
                 metadata.getStreamUrl());
-        contentInfo.put(ConvivaSdkConstants.STREAM_URL, streamUrl);
+        put(ConvivaSdkConstants.STREAM_URL, streamUrl);
+    }
 
-        return contentInfo;
+    private void put(String key, Object value) {
+        if (!contentInfo.containsKey(key) || !ObjectUtils.equals(contentInfo.get(key), value)) {
+            contentInfo.put(key, value);
+            dirtyKeys.add(key);
+            snapshot = null;
+        }
+    }
+
+    private void putAll(Map<String, ?> values) {
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
     }
 
     public void setAssetName(String newValue) {
-        metadata.setAssetName(newValue);
+        if (!ObjectUtils.equals(metadata.getAssetName(), newValue)) {
+            metadata.setAssetName(newValue);
+            inputsChanged = true;
+        }
     }
 
     public String getAssetName() {
@@ -98,7 +166,10 @@ class ContentMetadataBuilder {
     }
 
     public void setViewerId(String newValue) {
-        metadata.setViewerId(newValue);
+        if (!ObjectUtils.equals(metadata.getViewerId(), newValue)) {
+            metadata.setViewerId(newValue);
+            inputsChanged = true;
+        }
     }
 
     public String getViewerId() {
@@ -106,65 +177,127 @@ class ContentMetadataBuilder {
     }
 
     public void setStreamType(ConvivaSdkConstants.StreamType newValue) {
-        metadata.setStreamType(newValue);
+        if (metadata.getStreamType() != newValue) {
+            metadata.setStreamType(newValue);
+            inputsChanged = true;
+        }
     }
 
     public void setApplicationName(String newValue) {
-        metadata.setApplicationName(newValue);
+        if (!ObjectUtils.equals(metadata.getApplicationName(), newValue)) {
+            metadata.setApplicationName(newValue);
+            inputsChanged = true;
+        }
     }
 
+    /**
+     * Sets the internal custom tags. The tags are copied, so later changes of the given map are only
+     * applied by setting it again.
+     */
     public void setCustom(Map<String, String> newValue) {
-        metadata.setCustom(newValue);
+        if (!ObjectUtils.equals(metadata.getCustom(), newValue)) {
+            metadata.setCustom(copyOf(newValue));
+            mergedCustom = null;
+            inputsChanged = true;
+        }
     }
 
+    /**
+     * Returns the internal custom tags merged with the overrides, with override values having higher
+     * precedence. The unmodifiable result is cached until the custom tags or the overrides are set.
+     */
     public Map<String, String> getCustom() {
-        // merge internal and override metadata key-value pairs
-        // with override values having higher precedence
-        Map<String, String> customInternals = metadata.getCustom();
-        Map<String, String> customs = customInternals != null ? customInternals : new HashMap<>();
-        Map<String, String> customOverrides = metadataOverrides.getCustom();
-        if (customOverrides != null) {
-            customs.putAll(customOverrides);
+        Map<String, String> customs = mergedCustom;
+        if (customs == null) {
+            customs = merge(metadata.getCustom(), metadataOverrides.getCustom());
+            mergedCustom = customs;
         }
         return customs;
     }
 
+    /**
+     * Sets the internal additional standard tags. The tags are copied, so later changes of the given
+     * map are only applied by setting it again.
+     */
     public void setAdditionalStandardTags(Map<String, Object> newValue) {
-        metadata.setAdditionalStandardTags(newValue);
+        if (!ObjectUtils.equals(metadata.getAdditionalStandardTags(), newValue)) {
+            metadata.setAdditionalStandardTags(copyOf(newValue));
+            mergedAdditionalStandardTags = null;
+            inputsChanged = true;
+        }
     }
 
+    /**
+     * Returns the internal additional standard tags merged with the overrides, with override values
+     * having higher precedence. The unmodifiable result is cached until the additional standard tags
+     * or the overrides are set.
+     */
     public Map<String, Object> getAdditionalStandardTags() {
-        // merge internal and override metadata key-value pairs
-        // with override values having higher precedence
-        Map<String, Object> internalStandardTags = metadata.getAdditionalStandardTags();
-        Map<String, Object> additionalStandardTags = internalStandardTags != null ? internalStandardTags : new HashMap<>();
-        Map<String, Object> additionalStandardTagsOverrides = metadataOverrides.getAdditionalStandardTags();
-        if (additionalStandardTagsOverrides != null) {
-            additionalStandardTags.putAll(additionalStandardTagsOverrides);
+        Map<String, Object> additionalStandardTags = mergedAdditionalStandardTags;
+        if (additionalStandardTags == null) {
+            additionalStandardTags = merge(metadata.getAdditionalStandardTags(), metadataOverrides.getAdditionalStandardTags());
+            mergedAdditionalStandardTags = additionalStandardTags;
         }
         return additionalStandardTags;
     }
 
+    private static <V> Map<String, V> copyOf(Map<String, V> values) {
+        return values != null ? Collections.unmodifiableMap(new HashMap<>(values)) : null;
+    }
+
+    private static <V> Map<String, V> merge(Map<String, V> internals, Map<String, V> overrides) {
+        if (overrides == null || overrides.isEmpty()) {
+            return internals != null ? Collections.unmodifiableMap(internals) : Collections.<String, V>emptyMap();
+        }
+        if (internals == null || internals.isEmpty()) {
+            return Collections.unmodifiableMap(new HashMap<>(overrides));
+        }
+        Map<String, V> merged = new HashMap<>(internals);
+        merged.putAll(overrides);
+        return Collections.unmodifiableMap(merged);
+    }
+
+    private void invalidateMergedTags() {
+        mergedCustom = null;
+        mergedAdditionalStandardTags = null;
+    }
+
     public void setDuration(Integer newValue) {
-        metadata.setDuration(newValue);
+        if (!ObjectUtils.equals(metadata.getDuration(), newValue)) {
+            metadata.setDuration(newValue);
+            inputsChanged = true;
+        }
     }
 
     public void setEncodedFrameRate(Integer newValue) {
-        metadata.setEncodedFrameRate(newValue);
+        if (!ObjectUtils.equals(metadata.getEncodedFrameRate(), newValue)) {
+            metadata.setEncodedFrameRate(newValue);
+            inputsChanged = true;
+        }
     }
 
     public void setDefaultResource(String newValue) {
-        metadata.setDefaultResource(newValue);
+        if (!ObjectUtils.equals(metadata.getDefaultResource(), newValue)) {
+            metadata.setDefaultResource(newValue);
+            inputsChanged = true;
+        }
     }
 
     public void setStreamUrl(String newValue) {
-        metadata.setStreamUrl(newValue);
+        if (!ObjectUtils.equals(metadata.getStreamUrl(), newValue)) {
+            metadata.setStreamUrl(newValue);
+            inputsChanged = true;
+        }
     }
 
     public void reset() {
         metadataOverrides = new MetadataOverrides();
         metadata = new MetadataOverrides();
+        invalidateMergedTags();
         playbackStarted = false;
         contentInfo = new HashMap<>();
+        dirtyKeys.clear();
+        snapshot = null;
+        inputsChanged = true;
     }
 }
@@ -1,13 +1,16 @@
 package com.bitmovin.analytics.conviva;
 
+import android.app.ActivityManager;
 import android.content.Context;
-import android.os.Handler;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
+import com.bitmovin.analytics.conviva.helper.IntegrationLogger;
+import com.bitmovin.analytics.conviva.helper.ReportedPlayerStates;
+import com.bitmovin.analytics.conviva.helper.SdkCallDispatcher;
+import com.bitmovin.analytics.conviva.helper.SessionStateMachine;
 import com.bitmovin.analytics.conviva.ssai.DefaultSsaiApi;
 import com.bitmovin.analytics.conviva.ssai.SsaiApi;
 import com.bitmovin.player.api.Player;
@@ -22,48 +25,147 @@ import com.bitmovin.player.api.event.Event;
 import com.bitmovin.player.api.event.EventListener;
 import com.bitmovin.player.api.event.PlayerEvent;
 import com.bitmovin.player.api.event.SourceEvent;
+import com.bitmovin.player.api.source.Source;
 import com.conviva.sdk.ConvivaAdAnalytics;
 import com.conviva.sdk.ConvivaAnalytics;
 import com.conviva.sdk.ConvivaExperienceAnalytics;
 import com.conviva.sdk.ConvivaSdkConstants;
 import com.conviva.sdk.ConvivaVideoAnalytics;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class ConvivaAnalyticsIntegration {
     public static final String STREAM_TYPE = "streamType";
     public static final String INTEGRATION_VERSION = "integrationVersion";
     private static final String TAG = "ConvivaAnalyticsInt";
+    // reporting intervals of the low overhead tracking profile
+    private static final long LOW_OVERHEAD_PLAYHEAD_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long LOW_OVERHEAD_QUALITY_UPDATE_DELAY_MS = 2_000;
+    static final Map<String, Object> PLAYER_INFO = createPlayerInfo();
+    private static final AdInfoTemplate CLIENT_SIDE_AD_INFO_TEMPLATE = AdInfoTemplate.create(
+            createClientSideAdFields(),
+            ConvivaSdkConstants.IS_LIVE,
+            STREAM_TYPE,
+            INTEGRATION_VERSION
+    );
+    // custom tags which are the same for all sessions
+    private static final Map<String, String> CONSTANT_CUSTOM_TAGS = Collections.singletonMap(INTEGRATION_VERSION, BuildConfig.VERSION_NAME);
+    // events which hold back or discard held back events themselves instead of releasing them
+    private static final Set<Class<? extends Event>> EVENTS_HANDLING_HELD_BACK_EVENTS = new HashSet<>(Arrays.asList(
+            SourceEvent.Unloaded.class,
+            PlayerEvent.Paused.class,
+            PlayerEvent.StallEnded.class,
+            PlayerEvent.Error.class,
+            SourceEvent.Error.class
+    ));
+    // events which start buffering if the session can not yet be initialized with an asset name
+    private static final Set<Class<? extends Event>> EVENTS_STARTING_PRE_SESSION_BUFFER = new HashSet<>(Arrays.asList(
+            PlayerEvent.Play.class,
+            PlayerEvent.AdBreakStarted.class,
+            PlayerEvent.Warning.class,
+            SourceEvent.Warning.class
+    ));
+    // events which are not listened to while a session is not tracked
+    private static final Set<Class<? extends Event>> HIGH_FREQUENCY_EVENTS = new HashSet<>(Arrays.asList(
+            PlayerEvent.TimeChanged.class,
+            PlayerEvent.VideoPlaybackQualityChanged.class
+    ));
+    // events which end a session which is not tracked
+    private static final Set<Class<? extends Event>> EVENTS_ENDING_SAMPLED_OUT_SESSION = new HashSet<>(Arrays.asList(
+            SourceEvent.Unloaded.class,
+            PlayerEvent.PlaybackFinished.class,
+            PlayerEvent.Error.class,
+            SourceEvent.Error.class
+    ));
 
     @NonNull
     private final ContentMetadataBuilder contentMetadataBuilder = new ContentMetadataBuilder();
-    @NonNull
-    private final ConvivaVideoAnalytics convivaVideoAnalytics;
-    @NonNull
-    private final ConvivaAdAnalytics convivaAdAnalytics;
+    // set by the first call on the dispatch thread if the initialization is deferred, null until it ran
+    private volatile ConvivaVideoAnalytics convivaVideoAnalytics;
+    private volatile ConvivaAdAnalytics convivaAdAnalytics;
+    private final boolean initializationDeferred;
 
+    // replaced when the player is detached and another one is attached
     @Nullable
-    private PlayerDecorator player;
+    private volatile PlayerDecorator player;
 
     private MetadataOverrides metadataOverrides;
     @NonNull
     private final DefaultSsaiApi ssai;
+    @NonNull
+    private final SdkCallDispatcher sdkDispatcher;
+    @NonNull
+    private final EventReorderBuffer eventReorderBuffer;
+    @Nullable
+    private final PreSessionEventBuffer preSessionEventBuffer;
+    @NonNull
+    private final ErrorStackTraces errorStackTraces;
+    // null if all sessions are tracked
+    @Nullable
+    private final SessionSampler sessionSampler;
+    // subscribed event types and their handlers, all routed through eventDispatcher
+    @NonNull
+    private final Map<Class<? extends Event>, EventListener<? extends Event>> eventHandlers;
+    private final EventListener<Event> eventDispatcher = this::dispatchEvent;
+    @Nullable
+    private final IntegrationMetricsRecorder metricsRecorder;
+    // whether this integration initialized its analytics via the shared Conviva SDK
+    private boolean holdsSdkReference = false;
+    // whether this integration enabled the process wide debug logging, reverted on release
+    private boolean enablesDebugLogging;
+    @Nullable
+    private final ConvivaAnalyticsPool analyticsPool;
+    // analytics taken from analyticsPool, returned to it on release
+    @Nullable
+    private final ConvivaAnalyticsPool.PooledAnalytics pooledAnalytics;
 
-    private Boolean isSessionActive = false;
+    @NonNull
+    private final SessionStateMachine sessionState = new SessionStateMachine();
 
     @VisibleForTesting(otherwise = VisibleForTesting.NONE)
     public Boolean getSessionActive() {
-        return isSessionActive;
+        return sessionState.isSessionActive();
     }
 
-    private Boolean isBumper = false;
-    private Boolean isBackgrounded = false;
     @Nullable
-    private AdBreak activeAdBreak;
+    private volatile AdBreak activeAdBreak;
+    // metadata of the active playlist source resolved before the transition to it
+    @Nullable
+    private SourceMetadata activeSourceMetadata;
+    // metadata of the next playlist source, resolved once the active source plays
+    @Nullable
+    private SourceMetadata upcomingSourceMetadata;
+    private boolean upcomingSourceResolved = false;
 
-    private Boolean isAutoEndSession = true;
+    private volatile boolean isAutoEndSession = true;
+
+    // last player states reported to the video and ad analytics, used to drop redundant transitions
+    // shared with the server side ad tracking
+    @NonNull
+    private final ReportedPlayerStates reportedPlayerStates = new ReportedPlayerStates();
+    // holds the main content fields of the current session, only accessed by dispatched calls
+    private AdInfoTemplate clientSideAdInfoTemplate = CLIENT_SIDE_AD_INFO_TEMPLATE;
+    // custom tags last set on the content metadata, rebuilt only if the stream type changed
+    @Nullable
+    private Map<String, String> customInternTags;
+    private final VideoQualitySnapshot.MetricConsumer playbackVideoMetricReporter = this::reportPlaybackVideoMetric;
+    @NonNull
+    private final ConvivaConfig.PlayheadReportingMode playheadReportingMode;
+    private final boolean lowOverhead;
+    // content metadata updates on video quality changes, coalesced in the low overhead tracking profile.
+    // The video quality metrics themselves are always reported immediately.
+    @NonNull
+    private final CoalescedUpdate videoQualityUpdate;
+    // next time the playhead is reported in the low overhead tracking profile
+    private long nextPlayheadReportNanos = System.nanoTime();
 
     public ConvivaAnalyticsIntegration(String customerKey, Context context) {
         this(
@@ -102,6 +204,21 @@ public class ConvivaAnalyticsIntegration {
         this(player, customerKey, context, config, null, null, null);
     }
 
+    /**
+     * Creates an integration which takes its analytics from <code>analyticsPool</code> instead of
+     * building them, and returns them to the pool on {@link #release()}. The Conviva SDK is initialized
+     * and released by the pool.
+     */
+    public ConvivaAnalyticsIntegration(
+            Player player,
+            String customerKey,
+            Context context,
+            ConvivaConfig config,
+            @NonNull ConvivaAnalyticsPool analyticsPool
+    ) {
+        this(player, customerKey, context, config, null, null, null, analyticsPool);
+    }
+
     @VisibleForTesting()
     public ConvivaAnalyticsIntegration(
             @Nullable Player player,
@@ -112,45 +229,173 @@ public class ConvivaAnalyticsIntegration {
             @Nullable ConvivaAdAnalytics adAnalytics,
             @Nullable DefaultSsaiApi ssai
     ) {
-        Map<String, Object> settings = new HashMap<>();
-        if (config.getGatewayUrl() != null || config.isDebugLoggingEnabled()) {
-            if (config.getGatewayUrl() != null) {
-                settings.put(ConvivaSdkConstants.GATEWAY_URL, config.getGatewayUrl());
-            }
-            if (config.isDebugLoggingEnabled()) {
-                settings.put(ConvivaSdkConstants.LOG_LEVEL, ConvivaSdkConstants.LogLevel.DEBUG);
-            }
-        }
+        this(player, customerKey, context, config, videoAnalytics, adAnalytics, ssai, null);
+    }
 
-        if (videoAnalytics == null) {
-            ConvivaAnalytics.init(context, customerKey, settings);
-            convivaVideoAnalytics = ConvivaAnalytics.buildVideoAnalytics(context);
-        } else {
-            convivaVideoAnalytics = videoAnalytics;
+    private ConvivaAnalyticsIntegration(
+            @Nullable Player player,
+            String customerKey,
+            Context context,
+            ConvivaConfig config,
+            @Nullable ConvivaVideoAnalytics videoAnalytics,
+            @Nullable ConvivaAdAnalytics adAnalytics,
+            @Nullable DefaultSsaiApi ssai,
+            @Nullable ConvivaAnalyticsPool analyticsPool
+    ) {
+        boolean deferInitialization = config.isDeferredInitializationEnabled()
+                && videoAnalytics == null
+                && adAnalytics == null
+                && analyticsPool == null;
+        initializationDeferred = deferInitialization;
+        sdkDispatcher = config.isBackgroundDispatchEnabled() || deferInitialization
+                ? SdkCallDispatcher.background(config.getDispatchQueueCapacity())
+                : SdkCallDispatcher.direct();
+        eventReorderBuffer = new EventReorderBuffer(config.getEventReorderWindowMs());
+        errorStackTraces = new ErrorStackTraces(config.getErrorStackTraceMaxFrames(), config.getErrorStackTraceMaxChars());
+        sessionSampler = config.getSessionSamplingRate() < 1.0
+                ? new SessionSampler(config.getSessionSamplingRate())
+                : null;
+        preSessionEventBuffer = config.getPreSessionEventBufferCapacity() > 0
+                ? new PreSessionEventBuffer(config.getPreSessionEventBufferCapacity(), config.getPreSessionEventMaxAgeMs())
+                : null;
+        playheadReportingMode = ObjectUtils.defaultIfNull(
+                config.getPlayheadReportingMode(),
+                ConvivaConfig.PlayheadReportingMode.PUSH
+        );
+        lowOverhead = isLowOverheadProfile(config.getTrackingProfile(), context);
+        videoQualityUpdate = new CoalescedUpdate(lowOverhead ? LOW_OVERHEAD_QUALITY_UPDATE_DELAY_MS : 0, this::updateContentInfo);
+
+        enablesDebugLogging = config.isDebugLoggingEnabled();
+        if (enablesDebugLogging) {
+            IntegrationLogger.enableDebug();
         }
-        if (adAnalytics == null) {
-            convivaAdAnalytics = ConvivaAnalytics.buildAdAnalytics(context, convivaVideoAnalytics);
+        eventHandlers = createEventHandlers(config);
+        metricsRecorder = config.isIntegrationMetricsEnabled()
+                ? new IntegrationMetricsRecorder(eventHandlers.keySet())
+                : null;
+        sdkDispatcher.setCallObserver(metricsRecorder);
+
+        this.analyticsPool = analyticsPool;
+        if (videoAnalytics == null && analyticsPool != null) {
+            pooledAnalytics = analyticsPool.acquire();
+            convivaVideoAnalytics = pooledAnalytics.videoAnalytics;
+            convivaAdAnalytics = pooledAnalytics.adAnalytics;
         } else {
-            convivaAdAnalytics = adAnalytics;
+            pooledAnalytics = null;
+            if (videoAnalytics == null) {
+                holdsSdkReference = true;
+                if (!deferInitialization) {
+                    SharedConvivaSdk.acquire(context, customerKey, createSdkSettings(config));
+                    convivaVideoAnalytics = ConvivaAnalytics.buildVideoAnalytics(context);
+                }
+            } else {
+                convivaVideoAnalytics = videoAnalytics;
+            }
+            if (adAnalytics == null) {
+                if (!deferInitialization) {
+                    convivaAdAnalytics = ConvivaAnalytics.buildAdAnalytics(context, convivaVideoAnalytics);
+                }
+            } else {
+                convivaAdAnalytics = adAnalytics;
+            }
         }
 
         if (ssai == null) {
-            this.ssai = new DefaultSsaiApi(convivaVideoAnalytics, convivaAdAnalytics);
+            this.ssai = new DefaultSsaiApi(convivaVideoAnalytics, convivaAdAnalytics, sdkDispatcher, sessionState, reportedPlayerStates);
         } else {
             this.ssai = ssai;
         }
+        if (deferInitialization) {
+            // dispatched before any other call, so all calls are executed after the initialization
+            Map<String, Object> sdkSettings = createSdkSettings(config);
+            sdkDispatcher.dispatch("initialize", () -> initializeAnalytics(context, customerKey, sdkSettings));
+        } else {
+            setUpAnalyticsCallbacks();
+        }
         if (player != null) {
             attachPlayer(player);
         }
+    }
+
+    private void initializeAnalytics(Context context, String customerKey, Map<String, Object> sdkSettings) {
+        SharedConvivaSdk.acquire(context, customerKey, sdkSettings);
+        convivaVideoAnalytics = ConvivaAnalytics.buildVideoAnalytics(context);
+        convivaAdAnalytics = ConvivaAnalytics.buildAdAnalytics(context, convivaVideoAnalytics);
+        ssai.setAnalytics(convivaVideoAnalytics, convivaAdAnalytics);
+        setUpAnalyticsCallbacks();
+    }
+
+    private static boolean isLowOverheadProfile(@Nullable ConvivaConfig.TrackingProfile trackingProfile, @Nullable Context context) {
+        if (trackingProfile == ConvivaConfig.TrackingProfile.LOW_OVERHEAD) {
+            return true;
+        }
+        if (trackingProfile != ConvivaConfig.TrackingProfile.AUTO || context == null) {
+            return false;
+        }
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        boolean lowRamDevice = activityManager != null && activityManager.isLowRamDevice();
+        IntegrationLogger.d(TAG, "Low RAM device: ", lowRamDevice);
+        return lowRamDevice;
+    }
+
+    private static Map<String, Object> createPlayerInfo() {
+        Map<String, Object> playerInfo = new HashMap<>();
+        playerInfo.put(ConvivaSdkConstants.FRAMEWORK_NAME, "Bitmovin Player Android");
+        playerInfo.put(ConvivaSdkConstants.FRAMEWORK_VERSION, Player.getSdkVersion());
+        return Collections.unmodifiableMap(playerInfo);
+    }
+
+    private static Map<String, Object> createClientSideAdFields() {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("c3.ad.technology", "Client Side");
+        fields.put(ConvivaSdkConstants.FRAMEWORK_NAME, "Bitmovin");
+        fields.put(ConvivaSdkConstants.FRAMEWORK_VERSION, Player.getSdkVersion());
+        // default value for isSlate is false for Custom Ad Manager integration
+        fields.put("c3.ad.isSlate", "false");
+        return fields;
+    }
+
+    static Map<String, Object> createSdkSettings(ConvivaConfig config) {
+        Map<String, Object> settings = new HashMap<>();
+        if (config.getGatewayUrl() != null) {
+            settings.put(ConvivaSdkConstants.GATEWAY_URL, config.getGatewayUrl());
+        }
+        if (config.isDebugLoggingEnabled()) {
+            settings.put(ConvivaSdkConstants.LOG_LEVEL, ConvivaSdkConstants.LogLevel.DEBUG);
+        }
+        return settings;
+    }
+
+    private void setUpAnalyticsCallbacks() {
         setUpAdAnalyticsCallback();
+        if (playheadReportingMode == ConvivaConfig.PlayheadReportingMode.PULL) {
+            setUpVideoAnalyticsCallback();
+        }
+    }
+
+    private void setUpVideoAnalyticsCallback() {
+        convivaVideoAnalytics.setCallback(new ConvivaExperienceAnalytics.ICallback() {
+            @Override
+            public void update() {
+                PlayerDecorator attachedPlayer = player;
+                if (sessionState.isSessionActive() && attachedPlayer != null) {
+                    convivaVideoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAY_HEAD_TIME, attachedPlayer.getPlayHeadTimeMillis());
+                }
+            }
+
+            @Override
+            public void update(String s) {
+            }
+        });
     }
 
     private void setUpAdAnalyticsCallback() {
         convivaAdAnalytics.setCallback(new ConvivaExperienceAnalytics.ICallback() {
             @Override
             public void update() {
-                if (isAdActive() && player != null) {
-                    convivaAdAnalytics.reportAdMetric(ConvivaSdkConstants.PLAYBACK.PLAY_HEAD_TIME, player.getPlayHeadTimeMillis());
+                PlayerDecorator attachedPlayer = player;
+                if (isAdActive() && attachedPlayer != null) {
+                    convivaAdAnalytics.reportAdMetric(ConvivaSdkConstants.PLAYBACK.PLAY_HEAD_TIME, attachedPlayer.getPlayHeadTimeMillis());
                 }
             }
 
@@ -161,7 +406,8 @@ public class ConvivaAnalyticsIntegration {
     }
 
     private boolean isAdActive() {
-        return (player != null && player.isAd()) || ssai.isAdBreakActive();
+        PlayerDecorator attachedPlayer = player;
+        return (attachedPlayer != null && attachedPlayer.isAd()) || ssai.isAdBreakActive();
     }
 
     // region public methods
@@ -177,22 +423,45 @@ public class ConvivaAnalyticsIntegration {
         isAutoEndSession = autoEndingSession;
     }
 
+    /**
+     * Returns the number of player state transitions which were not reported to Conviva
+     * because the state was already reported before.
+     */
+    public long getSuppressedStateTransitionCount() {
+        return reportedPlayerStates.getSuppressedTransitionCount();
+    }
+
+    /**
+     * Returns the number of session state transitions which were rejected because they are not
+     * allowed in the current session state, e.g. a <code>Playing</code> event without an active session.
+     */
+    public long getIllegalStateTransitionCount() {
+        return sessionState.getIllegalTransitionCount();
+    }
+
     public void sendCustomApplicationEvent(String name) {
-        sendCustomApplicationEvent(name, new HashMap<>());
+        sendCustomApplicationEvent(name, Collections.emptyMap());
     }
 
     public void sendCustomApplicationEvent(String name, Map<String, Object> attributes) {
-        Log.d(TAG, "Will send custom application event: " + name + " " + attributes.toString());
-        ConvivaAnalytics.reportAppEvent(name, attributes);
+        if (IntegrationLogger.isDebugEnabled()) {
+            IntegrationLogger.d(TAG, "Will send custom application event: " + name + " " + attributes);
+        }
+        dispatch("reportAppEvent", () -> ConvivaAnalytics.reportAppEvent(name, attributes));
     }
 
     public void sendCustomPlaybackEvent(String name) {
-        sendCustomPlaybackEvent(name, new HashMap<>());
+        sendCustomPlaybackEvent(name, Collections.emptyMap());
     }
 
     public void sendCustomPlaybackEvent(String name, Map<String, Object> attributes) {
-        Log.d(TAG, "Will report app event: " + name + " " + attributes.toString());
-        ConvivaAnalytics.reportAppEvent(name, attributes);
+        if (sessionState.isSampledOut()) {
+            return;
+        }
+        if (IntegrationLogger.isDebugEnabled()) {
+            IntegrationLogger.d(TAG, "Will report app event: " + name + " " + attributes);
+        }
+        dispatch("reportAppEvent", () -> ConvivaAnalytics.reportAppEvent(name, attributes));
     }
 
     /**
@@ -207,13 +476,16 @@ public class ConvivaAnalyticsIntegration {
      * calling this method.
      */
     public void initializeSession() throws ConvivaAnalyticsException {
-        if ((player == null || player.getStreamTitle() == null)
-                && this.contentMetadataBuilder.getAssetName() == null) {
+        if (!hasAssetName()) {
             throw new ConvivaAnalyticsException(
                     "AssetName is missing. Load player source (with Title) and attach player first or set assetName via updateContentMetadata"
             );
         }
-        internalInitializeSession();
+        if (preSessionEventBuffer != null && !preSessionEventBuffer.isEmpty()) {
+            initializeBufferedSession();
+        } else {
+            internalInitializeSession();
+        }
     }
 
     /**
@@ -241,25 +513,104 @@ public class ConvivaAnalyticsIntegration {
     public void updateContentMetadata(MetadataOverrides metadataOverrides) {
         this.contentMetadataBuilder.setOverrides(metadataOverrides);
         this.metadataOverrides = metadataOverrides;
+        if (sessionState.isSampledOut()) {
+            return;
+        }
         this.createContentMetadata();
         this.updateSession();
+        if (preSessionEventBuffer != null && !preSessionEventBuffer.isEmpty() && hasAssetName()) {
+            initializeBufferedSession();
+        }
     }
 
     public void release() {
         release(true);
     }
 
+    /**
+     * Releases the integration and detaches it from the player. If called off the main thread while
+     * player events are held back, the integration is released asynchronously on the main thread.
+     *
+     * @param releaseConvivaSdk If <code>true</code>, the Conviva SDK is released as well once no other
+     *                          integration uses it. Ignored for integrations using a
+     *                          {@link ConvivaAnalyticsPool}, whose SDK is released by the pool.
+     */
     public void release(Boolean releaseConvivaSdk) {
-        convivaAdAnalytics.release();
-        convivaVideoAnalytics.release();
+        // held back events are discarded on the main thread, so the integration is released after them
+        eventReorderBuffer.clear(() -> releaseAfterHeldBackEvents(releaseConvivaSdk));
+    }
+
+    private void releaseAfterHeldBackEvents(boolean releaseConvivaSdk) {
+        videoQualityUpdate.cancel();
+        if (preSessionEventBuffer != null) {
+            preSessionEventBuffer.clear();
+        }
+        if (pooledAnalytics != null) {
+            if (sessionState.isSessionActive()) {
+                dispatch("reportPlaybackEnded", () -> convivaVideoAnalytics.reportPlaybackEnded());
+            }
+            dispatch("release", () -> analyticsPool.recycle(pooledAnalytics));
+        } else {
+            dispatch("release", () -> {
+                convivaAdAnalytics.release();
+                convivaVideoAnalytics.release();
+            });
+        }
         if (player != null) {
             detachBitmovinEventListeners(player);
         }
-        if (releaseConvivaSdk) {
-            ConvivaAnalytics.release();
+        if (holdsSdkReference) {
+            holdsSdkReference = false;
+            // dispatched, so a deferred initialization acquired the reference before
+            dispatch("release", () -> {
+                SharedConvivaSdk.releaseReference();
+                if (releaseConvivaSdk) {
+                    // Only releases the SDK if no other integration uses it
+                    SharedConvivaSdk.releaseIfUnreferenced();
+                }
+            });
+        } else if (releaseConvivaSdk && pooledAnalytics == null) {
+            // the SDK of pooled analytics is owned and released by the pool
+            dispatch("release", ConvivaAnalytics::release);
         }
+        sdkDispatcher.shutdown();
 
-        isSessionActive = false;
+        sessionState.endSession();
+        if (enablesDebugLogging) {
+            enablesDebugLogging = false;
+            IntegrationLogger.disableDebug();
+        }
+    }
+
+    /**
+     * Returns the number of Conviva SDK calls which were dropped because the background dispatch
+     * queue was full.
+     *
+     * @see ConvivaConfig#setBackgroundDispatchEnabled(boolean)
+     */
+    public long getDroppedSdkCallCount() {
+        return sdkDispatcher.getDroppedCallCount();
+    }
+
+    /**
+     * Returns a snapshot of the overhead metrics of this integration.
+     *
+     * @see ConvivaConfig#setIntegrationMetricsEnabled(boolean)
+     */
+    @NonNull
+    public IntegrationMetrics getIntegrationMetrics() {
+        Map<String, IntegrationMetrics.ListenerMetrics> listenerMetrics = Collections.emptyMap();
+        Map<String, Long> sdkCallCounts = Collections.emptyMap();
+        if (metricsRecorder != null) {
+            listenerMetrics = metricsRecorder.getListenerMetrics();
+            sdkCallCounts = metricsRecorder.getSdkCallCounts();
+        }
+        return new IntegrationMetrics(
+                listenerMetrics,
+                sdkCallCounts,
+                getSuppressedStateTransitionCount(),
+                getDroppedSdkCallCount()
+        );
     }
 
     /**
@@ -267,7 +618,7 @@ public class ConvivaAnalyticsIntegration {
      * create one.
      */
     public void reportPlaybackStalled() {
-        if (isSessionActive) {
+        if (sessionState.isSessionActive()) {
             transitionState(ConvivaSdkConstants.PlayerState.BUFFERING);
         }
     }
@@ -292,9 +643,11 @@ public class ConvivaAnalyticsIntegration {
      * @param endSession Boolean flag if session should be closed after reporting the deficiency
      */
     public void reportPlaybackDeficiency(String message, ConvivaSdkConstants.ErrorSeverity severity, Boolean endSession) {
-        Log.d(TAG, "Will report playback deficiency: " + message + ",  " + severity.toString());
-        if (isSessionActive) {
-            convivaVideoAnalytics.reportPlaybackError(message, severity);
+        if (IntegrationLogger.isDebugEnabled()) {
+            IntegrationLogger.d(TAG, "Will report playback deficiency: " + message + ",  " + severity);
+        }
+        if (sessionState.isSessionActive()) {
+            dispatch("reportPlaybackError", () -> convivaVideoAnalytics.reportPlaybackError(message, severity));
         }
         if (endSession) {
             internalEndSession();
@@ -308,19 +661,26 @@ public class ConvivaAnalyticsIntegration {
      *                  Otherwise the event is regarded as a "user wait"-event.
      */
     public void pauseTracking(Boolean _isBumper) {
-        isBumper = _isBumper;
-        String event = isBumper ? ConvivaSdkConstants.Events.BUMPER_VIDEO_STARTED.toString() : ConvivaSdkConstants.Events.USER_WAIT_STARTED.toString();
-        convivaVideoAnalytics.reportPlaybackEvent(event);
-        Log.d(TAG, "Tracking paused.");
+        sessionState.pauseTracking(_isBumper);
+        if (sessionState.isSampledOut()) {
+            return;
+        }
+        String event = _isBumper ? ConvivaSdkConstants.Events.BUMPER_VIDEO_STARTED.toString() : ConvivaSdkConstants.Events.USER_WAIT_STARTED.toString();
+        dispatch("reportPlaybackEvent", () -> convivaVideoAnalytics.reportPlaybackEvent(event));
+        IntegrationLogger.d(TAG, "Tracking paused.");
     }
 
     /**
      * Puts the session state from a notMonitored state into the last one tracked.
      */
     public void resumeTracking() {
-        String event = isBumper ? ConvivaSdkConstants.Events.BUMPER_VIDEO_ENDED.toString() : ConvivaSdkConstants.Events.USER_WAIT_ENDED.toString();
-        convivaVideoAnalytics.reportPlaybackEvent(event);
-        Log.d(TAG, "Tracking resumed.");
+        sessionState.resumeTracking();
+        if (sessionState.isSampledOut()) {
+            return;
+        }
+        String event = sessionState.isBumper() ? ConvivaSdkConstants.Events.BUMPER_VIDEO_ENDED.toString() : ConvivaSdkConstants.Events.USER_WAIT_ENDED.toString();
+        dispatch("reportPlaybackEvent", () -> convivaVideoAnalytics.reportPlaybackEvent(event));
+        IntegrationLogger.d(TAG, "Tracking resumed.");
     }
 
     /**
@@ -330,10 +690,9 @@ public class ConvivaAnalyticsIntegration {
      */
     @Deprecated
     public void reportAppForegrounded() {
-        Log.d(TAG, "appForegrounded");
-        if (isBackgrounded) {
-            ConvivaAnalytics.reportAppForegrounded();
-            isBackgrounded = false;
+        IntegrationLogger.d(TAG, "appForegrounded");
+        if (sessionState.setBackgrounded(false)) {
+            dispatch("reportAppForegrounded", ConvivaAnalytics::reportAppForegrounded);
         }
     }
 
@@ -344,10 +703,9 @@ public class ConvivaAnalyticsIntegration {
      */
     @Deprecated
     public void reportAppBackgrounded() {
-        Log.d(TAG, "appBackgrounded");
-        if (!isBackgrounded) {
-            ConvivaAnalytics.reportAppBackgrounded();
-            isBackgrounded = true;
+        IntegrationLogger.d(TAG, "appBackgrounded");
+        if (sessionState.setBackgrounded(true)) {
+            dispatch("reportAppBackgrounded", ConvivaAnalytics::reportAppBackgrounded);
         }
     }
 
@@ -356,16 +714,18 @@ public class ConvivaAnalyticsIntegration {
      * This method should be called as soon as the `Player` instance is initialized to not miss any tracking.
      * <p>
      * Has no effect if there is already a `Player` instance set. Use the `ConvivaAnalyticsIntegration` constructor
-     * without `player` if you plan to attach a `Player` instance later in the life-cycle.
+     * without `player` if you plan to attach a `Player` instance later in the life-cycle, or call `detachPlayer`
+     * first to replace the attached `Player` instance.
      */
     public void attachPlayer(@NonNull Player player) {
         if (this.player != null) {
-            Log.w(TAG, "There is already a Player instance attached! Ignoring new Player instance.");
+            IntegrationLogger.w(TAG, "There is already a Player instance attached! Ignoring new Player instance.");
             return;
         }
 
-        if (player.getSource() != null) {
-            Log.w(
+        // a player replacing a detached one continues the active session with its loaded source
+        if (player.getSource() != null && !sessionState.isSessionActive()) {
+            IntegrationLogger.w(
                     TAG,
                     "Player already has a source loaded. Please provide the player instance before loading a source."
             );
@@ -378,86 +738,273 @@ public class ConvivaAnalyticsIntegration {
         ssai.setPlayer(this.player);
     }
 
+    /**
+     * Detaches the attached `Player` instance without ending the active session, e.g. when the `Player` is
+     * recreated on activity recreation or when switching between picture-in-picture and fullscreen.
+     * Attach the new `Player` instance via `attachPlayer` to continue tracking the session.
+     * <p>
+     * Has no effect if no `Player` instance is attached. If called off the main thread while player events
+     * are held back, the `Player` instance is detached asynchronously on the main thread after handling them.
+     */
+    public void detachPlayer() {
+        PlayerDecorator attachedPlayer = player;
+        if (attachedPlayer == null) {
+            return;
+        }
+        // held back events of the player are handled on the main thread before it is detached
+        eventReorderBuffer.release(() -> detachPlayer(attachedPlayer));
+    }
+
+    private void detachPlayer(PlayerDecorator attachedPlayer) {
+        detachBitmovinEventListeners(attachedPlayer);
+        if (player != attachedPlayer) {
+            return;
+        }
+        player = null;
+        ssai.setPlayer(null);
+        IntegrationLogger.d(TAG, "Player detached");
+    }
+
     // endregion
 
+    private boolean hasAssetName() {
+        return (player != null && player.getStreamTitle() != null)
+                || contentMetadataBuilder.getAssetName() != null;
+    }
+
+    /**
+     * Buffers the event if the session can not yet be initialized with an asset name.
+     *
+     * @return <code>true</code> if the event was buffered or dropped and must not be handled now.
+     */
+    private boolean bufferBeforeSession(Event event) {
+        PreSessionEventBuffer buffer = preSessionEventBuffer;
+        if (buffer == null || sessionState.isSessionActive()) {
+            return false;
+        }
+        Class<? extends Event> eventClass = event.getClass();
+        if (buffer.isEmpty()) {
+            if (!EVENTS_STARTING_PRE_SESSION_BUFFER.contains(eventClass) || hasAssetName()) {
+                return false;
+            }
+        } else if (hasAssetName() || eventClass == PlayerEvent.Error.class || eventClass == SourceEvent.Error.class) {
+            initializeBufferedSession();
+            return false;
+        } else if (eventClass == SourceEvent.Unloaded.class) {
+            IntegrationLogger.d(TAG, "Source unloaded before session initialization, discarding buffered events");
+            buffer.clear();
+            return false;
+        }
+        // the playhead is reported again once the session is initialized
+        if (eventClass != PlayerEvent.TimeChanged.class) {
+            buffer.add(event);
+        }
+        return true;
+    }
+
+    private void initializeBufferedSession() {
+        // taken before initializing, so no nested initialization replays them again
+        List<Event> bufferedEvents = preSessionEventBuffer.take();
+        IntegrationLogger.d(TAG, "Initializing session with buffered events: ", bufferedEvents.size());
+        internalInitializeSession();
+        for (Event bufferedEvent : bufferedEvents) {
+            dispatchEvent(bufferedEvent);
+        }
+    }
+
     private void ensureConvivaSessionIsCreatedAndInitialized() {
-        if (!isSessionActive) {
+        if (!sessionState.isSessionActive()) {
             internalInitializeSession();
         }
     }
 
     private void customEvent(Event event) {
-        Map<String, Object> eventAttributes = new HashMap<>();
         if (event instanceof PlayerEvent.Error || event instanceof SourceEvent.Error) {
-            ErrorEvent errorEvent = ((ErrorEvent) event);
-            if (errorEvent.getData() != null) {
-                // Report stack trace to Conviva
-                eventAttributes.put("stack trace", errorEvent.getData().toString());
+            Object errorData = ((ErrorEvent) event).getData();
+            if (errorData != null) {
+                // Report stack trace to Conviva, serialized in the dispatched call. It runs on the background
+                // dispatch thread if enabled, otherwise on the player event thread.
+                String name = CustomEventNames.of(event);
+                IntegrationLogger.d(TAG, "Will report error event with stack trace: ", name);
+                dispatch("reportAppEvent", () -> ConvivaAnalytics.reportAppEvent(name, errorStackTraces.toAttributes(errorData)));
+                return;
             }
         }
-        customEvent(event, eventAttributes);
+        customEvent(event, Collections.emptyMap());
     }
 
     private void customEvent(Event event, Map<String, Object> attributes) {
-        String eventName = event.getClass().getSimpleName();
-        sendCustomPlaybackEvent("on" + eventName, attributes);
+        sendCustomPlaybackEvent(CustomEventNames.of(event), attributes);
+    }
+
+    private void dispatch(String callType, Runnable sdkCall) {
+        if (!initializationDeferred) {
+            sdkDispatcher.dispatch(callType, sdkCall);
+            return;
+        }
+        sdkDispatcher.dispatch(callType, () -> {
+            if (isAnalyticsInitialized(callType)) {
+                sdkCall.run();
+            }
+        });
+    }
+
+    private void dispatchDroppable(String callType, Runnable sdkCall) {
+        if (!initializationDeferred) {
+            sdkDispatcher.dispatchDroppable(callType, sdkCall);
+            return;
+        }
+        sdkDispatcher.dispatchDroppable(callType, () -> {
+            if (isAnalyticsInitialized(callType)) {
+                sdkCall.run();
+            }
+        });
+    }
+
+    /**
+     * Called on the dispatch thread. The analytics stay <code>null</code> if the deferred
+     * initialization failed.
+     */
+    private boolean isAnalyticsInitialized(String callType) {
+        if (convivaVideoAnalytics == null || convivaAdAnalytics == null) {
+            IntegrationLogger.w(TAG, "Conviva analytics are not initialized. Skipping call " + callType);
+            return false;
+        }
+        return true;
     }
 
     // region Session handling
     private void setupPlayerStateManager() {
-        convivaVideoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, ConvivaSdkConstants.PlayerState.STOPPED);
-        Map<String, Object> playerInfo = new HashMap<>();
-        playerInfo.put(ConvivaSdkConstants.FRAMEWORK_NAME, "Bitmovin Player Android");
-        playerInfo.put(ConvivaSdkConstants.FRAMEWORK_VERSION, Player.getSdkVersion());
-        convivaVideoAnalytics.setPlayerInfo(playerInfo);
-        convivaAdAnalytics.setAdPlayerInfo(playerInfo);
+        setLastReportedPlayerState(ConvivaSdkConstants.PlayerState.STOPPED);
+        // pooled analytics got their player info when they were prepared
+        boolean setPlayerInfo = pooledAnalytics == null;
+        dispatch("setPlayerInfo", () -> {
+            convivaVideoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, ConvivaSdkConstants.PlayerState.STOPPED);
+            if (setPlayerInfo) {
+                convivaVideoAnalytics.setPlayerInfo(PLAYER_INFO);
+                convivaAdAnalytics.setAdPlayerInfo(PLAYER_INFO);
+            }
+        });
     }
 
     private void internalInitializeSession() {
-        if (isSessionActive) return;
+        if (sessionState.isSessionActive() || sessionState.isSampledOut()) return;
+
+        if (sessionSampler != null) {
+            String viewerId = metadataOverrides != null ? metadataOverrides.getViewerId() : null;
+            if (!sessionSampler.isSampled(viewerId, resolveAssetName())) {
+                sampleOutSession();
+                return;
+            }
+        }
 
-        Log.d(TAG, "internalInitializeSession");
+        // requested before reporting, so a nested or concurrent initialization does not report it again
+        if (!sessionState.requestSession()) {
+            return;
+        }
+        IntegrationLogger.d(TAG, "internalInitializeSession");
         createContentMetadata();
 
-        convivaVideoAnalytics.reportPlaybackRequested(contentMetadataBuilder.build());
+        Map<String, Object> contentInfo = contentMetadataBuilder.build();
+        dispatch("reportPlaybackRequested", () -> {
+            // reset in the dispatched call, ordered with the stack traces serialized in dispatched calls
+            errorStackTraces.reset();
+            convivaVideoAnalytics.reportPlaybackRequested(contentInfo);
+        });
         setupPlayerStateManager();
         if (metadataOverrides != null) {
             updateContentMetadata(metadataOverrides);
         }
-        isSessionActive = true;
+    }
+
+    /**
+     * Marks the session as not tracked. Until it ends, no content metadata is built, the high frequency
+     * listeners are removed and no Conviva SDK calls are made.
+     */
+    private void sampleOutSession() {
+        if (!sessionState.sampleOut()) {
+            return;
+        }
+        IntegrationLogger.d(TAG, "Session not sampled, skipping tracking");
+        PlayerDecorator attachedPlayer = player;
+        if (attachedPlayer != null) {
+            setHighFrequencyListenersAttached(attachedPlayer, false);
+        }
     }
 
     private void updateSession() {
-        if (player != null) {
-            updatePlaybackVideoData(player);
-            buildDynamicContentMetadata(player);
+        if (sessionState.isSampledOut()) {
+            return;
+        }
+        PlayerDecorator attachedPlayer = player;
+        if (attachedPlayer != null) {
+            updatePlaybackVideoData(attachedPlayer);
         }
+        updateContentInfo();
+    }
 
-        if (isSessionActive) {
-            convivaVideoAnalytics.setContentInfo(contentMetadataBuilder.build());
+    private void updateContentInfo() {
+        if (sessionState.isSampledOut()) {
+            return;
+        }
+        PlayerDecorator attachedPlayer = player;
+        if (attachedPlayer != null) {
+            buildDynamicContentMetadata(attachedPlayer);
+        }
+
+        if (sessionState.isSessionActive()) {
+            Map<String, Object> changedContentInfo = contentMetadataBuilder.buildChanges();
+            if (!changedContentInfo.isEmpty()) {
+                dispatch("setContentInfo", () -> convivaVideoAnalytics.setContentInfo(changedContentInfo));
+            }
         }
     }
 
     private void updatePlaybackVideoData(@NonNull PlayerDecorator player) {
-        HashMap<String, Object[]> playbackVideoData = player.getPlaybackVideoData();
-        for (Map.Entry<String, Object[]> entry : playbackVideoData.entrySet()) {
-            convivaVideoAnalytics.reportPlaybackMetric(entry.getKey(), entry.getValue());
-            if (ssai.isAdBreakActive()) {
-                convivaAdAnalytics.reportAdMetric(entry.getKey(), entry.getValue());
+        VideoQualitySnapshot videoQuality = player.getPlaybackVideoQuality();
+        if (videoQuality != null) {
+            videoQuality.forEachMetric(playbackVideoMetricReporter);
+        }
+    }
+
+    private void reportPlaybackVideoMetric(String key, Object[] value) {
+        boolean reportToAdAnalytics = ssai.isAdBreakActive();
+        if (!sdkDispatcher.isBackground()) {
+            // called inline on the hot path, without allocating a dispatched call
+            sdkDispatcher.onDirectCall("reportPlaybackMetric");
+            convivaVideoAnalytics.reportPlaybackMetric(key, value);
+            if (reportToAdAnalytics) {
+                convivaAdAnalytics.reportAdMetric(key, value);
             }
+            return;
         }
+        dispatchDroppable("reportPlaybackMetric", () -> {
+            convivaVideoAnalytics.reportPlaybackMetric(key, value);
+            if (reportToAdAnalytics) {
+                convivaAdAnalytics.reportAdMetric(key, value);
+            }
+        });
     }
 
-    private void createContentMetadata() {
+    @Nullable
+    private String resolveAssetName() {
         String overriddenAssetName = metadataOverrides != null ? metadataOverrides.getAssetName() : null;
         if (overriddenAssetName != null) {
-            contentMetadataBuilder.setAssetName(overriddenAssetName);
+            return overriddenAssetName;
+        }
+        if (activeSourceMetadata != null) {
+            return activeSourceMetadata.getAssetName();
+        }
+        PlayerDecorator attachedPlayer = player;
+        return attachedPlayer != null ? attachedPlayer.getStreamTitle() : null;
+    }
+
+    private void createContentMetadata() {
+        String assetName = resolveAssetName();
+        if (assetName != null) {
+            contentMetadataBuilder.setAssetName(assetName);
         } else {
-            if (player != null && player.getStreamTitle() != null) {
-                contentMetadataBuilder.setAssetName(player.getStreamTitle());
-            } else {
-                Log.w(TAG, "No asset name provided for content metadata.");
-            }
+            IntegrationLogger.w(TAG, "No asset name provided for content metadata.");
         }
 
         if (player != null) {
@@ -469,10 +1016,14 @@ public class ConvivaAnalyticsIntegration {
         // Build custom tags here, though this is static metadata but
         // streamType could be missing at time of session initialization
         // as source information could be unavailable at that time
-        Map<String, String> customInternTags = new HashMap<>();
-        customInternTags.put(STREAM_TYPE, player.getStreamType());
-        customInternTags.put(INTEGRATION_VERSION, BuildConfig.VERSION_NAME);
-        contentMetadataBuilder.setCustom(customInternTags);
+        SourceMetadata sourceMetadata = activeSourceMetadata;
+        String streamType = sourceMetadata != null ? sourceMetadata.getStreamType() : player.getStreamType();
+        Map<String, String> tags = customInternTags;
+        if (tags == null || !ObjectUtils.equals(tags.get(STREAM_TYPE), streamType)) {
+            tags = createCustomInternTags(streamType);
+            customInternTags = tags;
+        }
+        contentMetadataBuilder.setCustom(tags);
 
         if (player.isLive()) {
             contentMetadataBuilder.setStreamType(ConvivaSdkConstants.StreamType.LIVE);
@@ -481,142 +1032,236 @@ public class ConvivaAnalyticsIntegration {
             contentMetadataBuilder.setDuration((int) player.getDuration());
         }
 
-        contentMetadataBuilder.setStreamUrl(player.getStreamUrl());
+        contentMetadataBuilder.setStreamUrl(sourceMetadata != null ? sourceMetadata.getStreamUrl() : player.getStreamUrl());
+    }
+
+    private static Map<String, String> createCustomInternTags(String streamType) {
+        Map<String, String> tags = new HashMap<>(CONSTANT_CUSTOM_TAGS);
+        tags.put(STREAM_TYPE, streamType);
+        return Collections.unmodifiableMap(tags);
     }
 
     private void internalEndSession() {
+        eventReorderBuffer.clear();
+        videoQualityUpdate.cancel();
+        if (preSessionEventBuffer != null) {
+            preSessionEventBuffer.clear();
+        }
         ssai.reset();
         contentMetadataBuilder.reset();
-        if (!isSessionActive) {
+        if (sessionState.isSampledOut()) {
+            PlayerDecorator attachedPlayer = player;
+            if (attachedPlayer != null) {
+                setHighFrequencyListenersAttached(attachedPlayer, true);
+            }
+            IntegrationLogger.d(TAG, "Not tracked session ended");
+        } else if (sessionState.isSessionActive()) {
+            dispatch("reportPlaybackEnded", () -> convivaVideoAnalytics.reportPlaybackEnded());
+            IntegrationLogger.d(TAG, "Session ended");
+        } else {
             return;
         }
-        convivaVideoAnalytics.reportPlaybackEnded();
-        Log.d(TAG, "Session ended");
-        isSessionActive = false;
+        sessionState.endSession();
+        activeSourceMetadata = null;
+        upcomingSourceMetadata = null;
+        upcomingSourceResolved = false;
+        setLastReportedPlayerState(null);
     }
     // endregion
 
     private void attachBitmovinEventListeners(PlayerDecorator player) {
+        boolean sampledOut = sessionState.isSampledOut();
         player.withEventEmitter(eventEmitter -> {
-            eventEmitter.on(SourceEvent.Unloaded.class, onSourceUnloadedListener);
-            eventEmitter.on(PlayerEvent.Error.class, onPlayerErrorListener);
-            eventEmitter.on(SourceEvent.Error.class, onSourceErrorListener);
-            eventEmitter.on(PlayerEvent.Warning.class, onPlayerWarningListener);
-            eventEmitter.on(SourceEvent.Warning.class, onSourceWarningListener);
-
-            eventEmitter.on(PlayerEvent.Muted.class, onMutedListener);
-            eventEmitter.on(PlayerEvent.Unmuted.class, onUnmutedListener);
-
-            // Playback state events
-            eventEmitter.on(PlayerEvent.Play.class, onPlayListener);
-            eventEmitter.on(PlayerEvent.Playing.class, onPlayingListener);
-            eventEmitter.on(PlayerEvent.Paused.class, onPausedListener);
-            eventEmitter.on(PlayerEvent.StallEnded.class, onStallEndedListener);
-            eventEmitter.on(PlayerEvent.StallStarted.class, onStallStartedListener);
-            eventEmitter.on(PlayerEvent.PlaybackFinished.class, onPlaybackFinishedListener);
-
-            // Seek events
-            eventEmitter.on(PlayerEvent.Seeked.class, onSeekedListener);
-            eventEmitter.on(PlayerEvent.Seek.class, onSeekListener);
-
-            // Time shift events
-            eventEmitter.on(PlayerEvent.TimeShift.class, onTimeShiftListener);
-            eventEmitter.on(PlayerEvent.TimeShifted.class, onTimeShiftedListener);
-
-            // Ad events
-            eventEmitter.on(PlayerEvent.AdBreakStarted.class, onAdBreakStarted);
-            eventEmitter.on(PlayerEvent.AdBreakFinished.class, onAdBreakFinished);
-            eventEmitter.on(PlayerEvent.AdStarted.class, onAdStartedListener);
-            eventEmitter.on(PlayerEvent.AdFinished.class, onAdFinishedListener);
-            eventEmitter.on(PlayerEvent.AdSkipped.class, onAdSkippedListener);
-            eventEmitter.on(PlayerEvent.AdError.class, onAdErrorListener);
-            eventEmitter.on(PlayerEvent.TimeChanged.class, onTimeChangedListener);
-
-            eventEmitter.on(PlayerEvent.VideoPlaybackQualityChanged.class, onVideoPlaybackQualityChangedListener);
+            for (Class<? extends Event> eventClass : eventHandlers.keySet()) {
+                if (!sampledOut || !HIGH_FREQUENCY_EVENTS.contains(eventClass)) {
+                    eventEmitter.on(eventClass, eventDispatcher);
+                }
+            }
         });
     }
 
     private void detachBitmovinEventListeners(PlayerDecorator player) {
-        player.withEventEmitter(bitmovinPlayer -> {
-            bitmovinPlayer.off(SourceEvent.Unloaded.class, onSourceUnloadedListener);
-            bitmovinPlayer.off(PlayerEvent.Error.class, onPlayerErrorListener);
-            bitmovinPlayer.off(SourceEvent.Error.class, onSourceErrorListener);
-            bitmovinPlayer.off(PlayerEvent.Warning.class, onPlayerWarningListener);
-            bitmovinPlayer.off(SourceEvent.Warning.class, onSourceWarningListener);
-
-            bitmovinPlayer.off(PlayerEvent.Muted.class, onMutedListener);
-            bitmovinPlayer.off(PlayerEvent.Unmuted.class, onUnmutedListener);
-
-            // Playback state events
-            bitmovinPlayer.off(PlayerEvent.Play.class, onPlayListener);
-            bitmovinPlayer.off(PlayerEvent.Playing.class, onPlayingListener);
-            bitmovinPlayer.off(PlayerEvent.Paused.class, onPausedListener);
-            bitmovinPlayer.off(PlayerEvent.StallEnded.class, onStallEndedListener);
-            bitmovinPlayer.off(PlayerEvent.StallStarted.class, onStallStartedListener);
-            bitmovinPlayer.off(PlayerEvent.PlaybackFinished.class, onPlaybackFinishedListener);
-
-            // Seek events
-            bitmovinPlayer.off(PlayerEvent.Seeked.class, onSeekedListener);
-            bitmovinPlayer.off(PlayerEvent.Seek.class, onSeekListener);
-
-            // Timeshift events
-            bitmovinPlayer.off(PlayerEvent.TimeShift.class, onTimeShiftListener);
-            bitmovinPlayer.off(PlayerEvent.TimeShifted.class, onTimeShiftedListener);
-
-            // Ad events
-            bitmovinPlayer.off(PlayerEvent.AdBreakStarted.class, onAdBreakStarted);
-            bitmovinPlayer.off(PlayerEvent.AdBreakFinished.class, onAdBreakFinished);
-            bitmovinPlayer.off(PlayerEvent.AdStarted.class, onAdStartedListener);
-            bitmovinPlayer.off(PlayerEvent.AdFinished.class, onAdFinishedListener);
-            bitmovinPlayer.off(PlayerEvent.AdSkipped.class, onAdSkippedListener);
-            bitmovinPlayer.off(PlayerEvent.AdError.class, onAdErrorListener);
-            bitmovinPlayer.off(PlayerEvent.TimeChanged.class, onTimeChangedListener);
-
-            bitmovinPlayer.off(PlayerEvent.VideoPlaybackQualityChanged.class, onVideoPlaybackQualityChangedListener);
+        // removes the dispatcher from all event types it was registered for
+        player.withEventEmitter(eventEmitter -> eventEmitter.off(eventDispatcher));
+    }
+
+    private void setHighFrequencyListenersAttached(PlayerDecorator player, boolean attached) {
+        player.withEventEmitter(eventEmitter -> {
+            for (Class<? extends Event> eventClass : HIGH_FREQUENCY_EVENTS) {
+                if (!eventHandlers.containsKey(eventClass)) {
+                    continue;
+                }
+                if (attached) {
+                    eventEmitter.on(eventClass, eventDispatcher);
+                } else {
+                    eventEmitter.off(eventClass, eventDispatcher);
+                }
+            }
         });
     }
 
-    private synchronized void transitionState(ConvivaSdkConstants.PlayerState state) {
-        Log.d(TAG, "Transitioning to :" + state.name());
-        convivaVideoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, state);
+    private Map<Class<? extends Event>, EventListener<? extends Event>> createEventHandlers(ConvivaConfig config) {
+        Map<Class<? extends Event>, EventListener<? extends Event>> handlers = new LinkedHashMap<>();
+        handlers.put(SourceEvent.Unloaded.class, onSourceUnloadedListener);
+        handlers.put(PlayerEvent.Error.class, onPlayerErrorListener);
+        handlers.put(SourceEvent.Error.class, onSourceErrorListener);
+        handlers.put(PlayerEvent.Warning.class, onPlayerWarningListener);
+        handlers.put(SourceEvent.Warning.class, onSourceWarningListener);
+
+        if (config.isMuteEventTrackingEnabled() && !lowOverhead) {
+            handlers.put(PlayerEvent.Muted.class, onMutedListener);
+            handlers.put(PlayerEvent.Unmuted.class, onUnmutedListener);
+        }
+
+        // Playback state events
+        handlers.put(PlayerEvent.Play.class, onPlayListener);
+        handlers.put(PlayerEvent.Playing.class, onPlayingListener);
+        handlers.put(PlayerEvent.Paused.class, onPausedListener);
+        handlers.put(PlayerEvent.StallEnded.class, onStallEndedListener);
+        handlers.put(PlayerEvent.StallStarted.class, onStallStartedListener);
+        handlers.put(PlayerEvent.PlaybackFinished.class, onPlaybackFinishedListener);
+        handlers.put(PlayerEvent.PlaylistTransition.class, onPlaylistTransitionListener);
+
+        // Seek events
+        handlers.put(PlayerEvent.Seeked.class, onSeekedListener);
+        handlers.put(PlayerEvent.Seek.class, onSeekListener);
+
+        // Time shift events
+        handlers.put(PlayerEvent.TimeShift.class, onTimeShiftListener);
+        handlers.put(PlayerEvent.TimeShifted.class, onTimeShiftedListener);
+
+        // Ad events
+        handlers.put(PlayerEvent.AdBreakStarted.class, onAdBreakStarted);
+        handlers.put(PlayerEvent.AdBreakFinished.class, onAdBreakFinished);
+        handlers.put(PlayerEvent.AdStarted.class, onAdStartedListener);
+        handlers.put(PlayerEvent.AdFinished.class, onAdFinishedListener);
+        handlers.put(PlayerEvent.AdSkipped.class, onAdSkippedListener);
+        handlers.put(PlayerEvent.AdError.class, onAdErrorListener);
+        if (playheadReportingMode == ConvivaConfig.PlayheadReportingMode.PUSH) {
+            handlers.put(PlayerEvent.TimeChanged.class, onTimeChangedListener);
+        }
+
+        handlers.put(PlayerEvent.VideoPlaybackQualityChanged.class, onVideoPlaybackQualityChangedListener);
+        return handlers;
+    }
+
+    /**
+     * Single listener registered for all subscribed event types. Routes each event to its handler.
+     */
+    @SuppressWarnings("unchecked")
+    private void dispatchEvent(Event event) {
+        EventListener<Event> handler = (EventListener<Event>) eventHandlers.get(event.getClass());
+        if (handler == null) {
+            return;
+        }
+        if (sessionState.isSampledOut()) {
+            handleSampledOutEvent(event);
+            return;
+        }
+        if (bufferBeforeSession(event)) {
+            return;
+        }
+        IntegrationMetricsRecorder recorder = metricsRecorder;
+        long startNanos = recorder != null ? System.nanoTime() : 0;
+        if (!EVENTS_HANDLING_HELD_BACK_EVENTS.contains(event.getClass())) {
+            releaseHeldBackEvents();
+        }
+        handler.onEvent(event);
+        if (recorder != null) {
+            recorder.recordListenerInvocation(event.getClass(), System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Only handles events ending the session while it is not tracked, without any Conviva SDK calls.
+     */
+    private void handleSampledOutEvent(Event event) {
+        Class<? extends Event> eventClass = event.getClass();
+        if (eventClass == PlayerEvent.PlaylistTransition.class) {
+            onPlaylistTransitionListener.onEvent((PlayerEvent.PlaylistTransition) event);
+        } else if (isAutoEndSession && EVENTS_ENDING_SAMPLED_OUT_SESSION.contains(eventClass)) {
+            IntegrationLogger.d(TAG, "Ending not tracked session on ", eventClass.getSimpleName());
+            internalEndSession();
+        }
+    }
+
+    private void transitionState(ConvivaSdkConstants.PlayerState state) {
+        if (reportedPlayerStates.transitionContentState(state)) {
+            IntegrationLogger.d(TAG, "Transitioning to :", state);
+            if (!sdkDispatcher.isBackground()) {
+                sdkDispatcher.onDirectCall("reportPlaybackMetric");
+                convivaVideoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, state);
+            } else {
+                dispatch("reportPlaybackMetric", () -> convivaVideoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, state));
+            }
+        }
+
         if (isAdActive()) {
-            Log.d(TAG, "Transitioning ad state to: " + state.name());
-            convivaAdAnalytics.reportAdMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, state);
+            if (reportedPlayerStates.transitionAdState(state)) {
+                IntegrationLogger.d(TAG, "Transitioning ad state to: ", state);
+                dispatch("reportAdMetric", () -> convivaAdAnalytics.reportAdMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, state));
+            }
+        } else {
+            reportedPlayerStates.setAdState(null);
         }
     }
 
+    private void setLastReportedPlayerState(@Nullable ConvivaSdkConstants.PlayerState state) {
+        reportedPlayerStates.setContentState(state);
+    }
+
+    private void setLastReportedAdPlayerState(@Nullable ConvivaSdkConstants.PlayerState state) {
+        reportedPlayerStates.setAdState(state);
+    }
+
+    private void holdBackEvent(Runnable eventHandling, boolean supersededByError) {
+        eventReorderBuffer.hold(eventHandling, supersededByError);
+    }
+
+    private void releaseHeldBackEvents() {
+        eventReorderBuffer.release();
+    }
+
+    private void discardHeldBackEventsSupersededByError() {
+        eventReorderBuffer.discardSupersededByError();
+    }
+
     // region Listeners
     private final EventListener<SourceEvent.Unloaded> onSourceUnloadedListener = event -> {
         // The default SDK error handling is that it triggers the onSourceUnloaded before the onError event.
-        // To track errors on Conviva we need to delay the onSourceUnloaded to ensure the onError event is
-        // called first.
+        // To track errors on Conviva we need to hold back the onSourceUnloaded to ensure the onError event is
+        // handled first.
         // TODO: remove this once the event order is fixed on the Android SDK.
-        new Handler().postDelayed(() -> {
-            Log.d(TAG, "[Player Event] SourceUnloaded");
+        holdBackEvent(() -> {
+            IntegrationLogger.d(TAG, "[Player Event] SourceUnloaded");
             if (isAutoEndSession) {
                 internalEndSession();
             }
-        }, 100);
+        }, false);
     };
 
     private final EventListener<PlayerEvent.Error> onPlayerErrorListener = event -> {
-        String errorMessage = String.format("%s - %s", event.getCode().getValue(), event.getMessage());
-        Log.d(TAG, "[Player Event] Error - " + errorMessage);
+        String errorMessage = event.getCode().getValue() + " - " + event.getMessage();
+        IntegrationLogger.d(TAG, "[Player Event] Error - ", errorMessage);
+        discardHeldBackEventsSupersededByError();
         customEvent(event); // In case of Error, report current stack trace if available
         handleError(errorMessage);
+        releaseHeldBackEvents();
     };
 
     private final EventListener<SourceEvent.Error> onSourceErrorListener = event -> {
-        String errorMessage = String.format("%s - %s", event.getCode().getValue(), event.getMessage());
-        Log.d(TAG, "[Source Event] Error - " + errorMessage);
+        String errorMessage = event.getCode().getValue() + " - " + event.getMessage();
+        IntegrationLogger.d(TAG, "[Source Event] Error - ", errorMessage);
+        discardHeldBackEventsSupersededByError();
         customEvent(event); // In case of Error, report current stack trace if available
         handleError(errorMessage);
+        releaseHeldBackEvents();
     };
 
     private void handleError(String message) {
         ConvivaSdkConstants.ErrorSeverity severity = ConvivaSdkConstants.ErrorSeverity.FATAL;
         if (ssai.isAdBreakActive()) {
-            convivaAdAnalytics.reportAdError(message, severity);
+            dispatch("reportAdError", () -> convivaAdAnalytics.reportAdError(message, severity));
         }
         reportPlaybackDeficiency(message, severity);
     }
@@ -624,47 +1269,53 @@ public class ConvivaAnalyticsIntegration {
     private final EventListener<PlayerEvent.Warning> onPlayerWarningListener = new EventListener<PlayerEvent.Warning>() {
         @Override
         public void onEvent(PlayerEvent.Warning warningEvent) {
-            if (!isSessionActive) {
-                Log.d(TAG, "[Player Event] Warning outside of active conviva session. Ignoring.");
+            if (!sessionState.isSessionActive()) {
+                IntegrationLogger.d(TAG, "[Player Event] Warning outside of active conviva session. Ignoring.");
                 return;
             }
-            Log.d(TAG, "[Player Event] Warning");
-            String message = String.format("%s - %s", warningEvent.getCode().getValue(), warningEvent.getMessage());
-            convivaVideoAnalytics.reportPlaybackError(message, ConvivaSdkConstants.ErrorSeverity.WARNING);
+            IntegrationLogger.d(TAG, "[Player Event] Warning");
+            String message = warningEvent.getCode().getValue() + " - " + warningEvent.getMessage();
+            reportPlaybackWarning(message);
         }
     };
 
     private final EventListener<SourceEvent.Warning> onSourceWarningListener = new EventListener<SourceEvent.Warning>() {
         @Override
         public void onEvent(SourceEvent.Warning warningEvent) {
-            if (!isSessionActive) {
-                Log.d(TAG, "[Source Event] Warning outside of active conviva session. Ignoring.");
+            if (!sessionState.isSessionActive()) {
+                IntegrationLogger.d(TAG, "[Source Event] Warning outside of active conviva session. Ignoring.");
                 return;
             }
-            Log.d(TAG, "[Source Event] Warning");
-            String message = String.format("%s - %s", warningEvent.getCode().getValue(), warningEvent.getMessage());
-            convivaVideoAnalytics.reportPlaybackError(message, ConvivaSdkConstants.ErrorSeverity.WARNING);
+            IntegrationLogger.d(TAG, "[Source Event] Warning");
+            String message = warningEvent.getCode().getValue() + " - " + warningEvent.getMessage();
+            reportPlaybackWarning(message);
         }
     };
 
+    private void reportPlaybackWarning(String message) {
+        dispatch("reportPlaybackError", () -> convivaVideoAnalytics.reportPlaybackError(message, ConvivaSdkConstants.ErrorSeverity.WARNING));
+    }
+
     private final EventListener<PlayerEvent.Muted> onMutedListener = event -> {
-        Log.d(TAG, "[Player Event] Muted");
+        IntegrationLogger.d(TAG, "[Player Event] Muted");
         customEvent(event);
     };
 
     private final EventListener<PlayerEvent.Unmuted> onUnmutedListener = event -> {
-        Log.d(TAG, "[Player Event] Unmuted");
+        IntegrationLogger.d(TAG, "[Player Event] Unmuted");
         customEvent(event);
     };
 
     // region Playback state events
     private final EventListener<PlayerEvent.Play> onPlayListener = playEvent -> {
-        Log.d(TAG, "[Player Event] Play");
+        IntegrationLogger.d(TAG, "[Player Event] Play");
         ensureConvivaSessionIsCreatedAndInitialized();
         updateSession();
     };
     private final EventListener<PlayerEvent.Playing> onPlayingListener = playingEvent -> {
-        Log.d(TAG, "[Player Event] Playing");
+        IntegrationLogger.d(TAG, "[Player Event] Playing");
+        sessionState.startPlaying();
+        resolveUpcomingSourceMetadata();
         contentMetadataBuilder.setPlaybackStarted(true);
         transitionState(ConvivaSdkConstants.PlayerState.PLAYING);
     };
@@ -672,17 +1323,62 @@ public class ConvivaAnalyticsIntegration {
     private final EventListener<PlayerEvent.Paused> onPausedListener = pausedEvent -> {
         // The default SDK handling is that it triggers the onPaused before the
         // onError event in case of no internet connectivity. (No onPaused should be triggered)
-        // To ensure that no playback state change will be reported we need to delay the
+        // To ensure that no playback state change will be reported we need to hold back the
         // onPaused event.
         // TODO: remove this once the event order is fixed on the Android SDK.
-        new Handler().postDelayed(() -> {
-            Log.d(TAG, "[Player Event] Paused");
+        holdBackEvent(() -> {
+            IntegrationLogger.d(TAG, "[Player Event] Paused");
             transitionState(ConvivaSdkConstants.PlayerState.PAUSED);
-        }, 100);
+        }, true);
     };
 
+    private final EventListener<PlayerEvent.PlaylistTransition> onPlaylistTransitionListener = playlistTransitionEvent -> {
+        IntegrationLogger.d(TAG, "[Player Event] PlaylistTransition");
+        if (!isAutoEndSession || (!sessionState.isSessionActive() && !sessionState.isSampledOut())) {
+            // without an active session, the next Play event initializes one for the new source
+            return;
+        }
+        Source nextSource = playlistTransitionEvent.getTo();
+        SourceMetadata nextSourceMetadata = upcomingSourceMetadata;
+        if (nextSourceMetadata == null || !nextSourceMetadata.isFor(nextSource)) {
+            nextSourceMetadata = SourceMetadata.of(nextSource);
+        }
+        internalEndSession();
+        activeSourceMetadata = nextSourceMetadata;
+        if (metadataOverrides != null) {
+            // overrides describing the previous source must not be reported for the next one
+            metadataOverrides = withoutSourceOverrides(metadataOverrides);
+            contentMetadataBuilder.setOverrides(metadataOverrides);
+        }
+        internalInitializeSession();
+    };
+
+    /**
+     * Copies the overrides which apply to all sources of a playlist, without the ones describing a
+     * single source.
+     */
+    private static MetadataOverrides withoutSourceOverrides(MetadataOverrides metadataOverrides) {
+        MetadataOverrides sessionOverrides = new MetadataOverrides();
+        sessionOverrides.setViewerId(metadataOverrides.getViewerId());
+        sessionOverrides.setApplicationName(metadataOverrides.getApplicationName());
+        sessionOverrides.setCustom(metadataOverrides.getCustom());
+        sessionOverrides.setAdditionalStandardTags(metadataOverrides.getAdditionalStandardTags());
+        sessionOverrides.setDefaultResource(metadataOverrides.getDefaultResource());
+        sessionOverrides.setImaSdkVersion(metadataOverrides.getImaSdkVersion());
+        return sessionOverrides;
+    }
+
+    private void resolveUpcomingSourceMetadata() {
+        PlayerDecorator attachedPlayer = player;
+        if (upcomingSourceResolved || attachedPlayer == null || !sessionState.isSessionActive()) {
+            return;
+        }
+        upcomingSourceMetadata = attachedPlayer.getUpcomingSourceMetadata();
+        upcomingSourceResolved = true;
+    }
+
     private final EventListener<PlayerEvent.PlaybackFinished> onPlaybackFinishedListener = playbackFinishedEvent -> {
-        Log.d(TAG, "[Player Event] PlaybackFinished");
+        IntegrationLogger.d(TAG, "[Player Event] PlaybackFinished");
         transitionState(ConvivaSdkConstants.PlayerState.STOPPED);
         if (isAutoEndSession) {
             internalEndSession();
@@ -690,7 +1386,7 @@ public class ConvivaAnalyticsIntegration {
     };
 
     private final EventListener<PlayerEvent.StallStarted> onStallStartedListener = stallStartedEvent -> {
-        Log.d(TAG, "[Player Event] StallStarted");
+        IntegrationLogger.d(TAG, "[Player Event] StallStarted");
         reportPlaybackStalled();
     };
 
@@ -699,36 +1395,36 @@ public class ConvivaAnalyticsIntegration {
         public void onEvent(PlayerEvent.StallEnded stallEndedEvent) {
             // The default SDK error handling is that it triggers the onStallEnded before the
             // onError event in case of no internet connectivity.
-            // To track errors on Conviva we need to delay the onStallEnded to ensure no
+            // To track errors on Conviva we need to hold back the onStallEnded to ensure no
             // playback state change will be reported.
             // TODO: remove this once the event order is fixed on the Android SDK.
-            new Handler().postDelayed(() -> {
-                Log.d(TAG, "[Player Event] StallEnded");
+            holdBackEvent(() -> {
+                IntegrationLogger.d(TAG, "[Player Event] StallEnded");
                 ConvivaSdkConstants.PlayerState state = ConvivaSdkConstants.PlayerState.PLAYING;
-                if (player.isPaused()) {
+                if (player != null && player.isPaused()) {
                     state = ConvivaSdkConstants.PlayerState.PAUSED;
                 }
                 transitionState(state);
-            }, 100);
+            }, true);
         }
     };
     // endregion
 
     // region Seek and Timeshift events
     private final EventListener<PlayerEvent.Seek> onSeekListener = seekEvent -> {
-        Log.d(TAG, "[Player Event] Seek");
+        IntegrationLogger.d(TAG, "[Player Event] Seek");
         setSeekStart((int) seekEvent.getTo().getTime() * 1000);
         // Conviva expect notification of buffering events on seek (typically there is always buffering)
         transitionState(ConvivaSdkConstants.PlayerState.BUFFERING);
     };
 
     private final EventListener<PlayerEvent.Seeked> onSeekedListener = seekedEvent -> {
-        Log.d(TAG, "[Player Event] Seeked");
+        IntegrationLogger.d(TAG, "[Player Event] Seeked");
         setSeekEnd();
     };
 
     private final EventListener<PlayerEvent.TimeShift> onTimeShiftListener = timeShiftEvent -> {
-        Log.d(TAG, "[Player Event] TimeShift");
+        IntegrationLogger.d(TAG, "[Player Event] TimeShift");
         // According to conviva it is valid to pass -1 for seeking in live streams
         setSeekStart(-1);
         // Conviva expect notification of buffering events on timeshift (typically there is always buffering)
@@ -736,20 +1432,22 @@ public class ConvivaAnalyticsIntegration {
     };
 
     private final EventListener<PlayerEvent.TimeShifted> onTimeShiftedListener = timeShiftedEvent -> {
-        Log.d(TAG, "[Player Event] TimeShifted");
+        IntegrationLogger.d(TAG, "[Player Event] TimeShifted");
         setSeekEnd();
     };
 
     private void setSeekStart(int seekTarget) {
-        Log.d(TAG, "Sending seek start event");
-        convivaVideoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.SEEK_STARTED, seekTarget);
+        IntegrationLogger.d(TAG, "Sending seek start event");
+        dispatch("reportPlaybackMetric", () -> convivaVideoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.SEEK_STARTED, seekTarget));
     }
 
     public void setSeekEnd() {
-        Log.d(TAG, "Sending seek end event");
-        convivaVideoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.SEEK_ENDED);
+        IntegrationLogger.d(TAG, "Sending seek end event");
+        dispatch("reportPlaybackMetric", () -> convivaVideoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.SEEK_ENDED));
+        // the playhead after the seek is reported without waiting for the low overhead interval
+        nextPlayheadReportNanos = System.nanoTime();
         // Notify of seek buffering complete at this stage.
-        Log.d(TAG, "[Player Event] Update state after buffering");
+        IntegrationLogger.d(TAG, "[Player Event] Update state after buffering");
         ConvivaSdkConstants.PlayerState state = ConvivaSdkConstants.PlayerState.PAUSED;
         if (player != null && player.isPlaying()) {
             state = ConvivaSdkConstants.PlayerState.PLAYING;
@@ -763,20 +1461,28 @@ public class ConvivaAnalyticsIntegration {
     private final EventListener<PlayerEvent.AdBreakStarted> onAdBreakStarted = new EventListener<PlayerEvent.AdBreakStarted>() {
         @Override
         public void onEvent(PlayerEvent.AdBreakStarted adBreakStarted) {
-            Log.d(TAG, "[Player Event] AdBreakStarted");
+            IntegrationLogger.d(TAG, "[Player Event] AdBreakStarted");
             // For pre-roll ads there is no `PlayerEvent.Play` before the `PlayerEvent.AdBreakStarted`
             // which means we need to make sure the session is correctly initialized.
             ensureConvivaSessionIsCreatedAndInitialized();
+            if (!sessionState.startAdBreak(SessionStateMachine.State.CLIENT_AD_BREAK)) {
+                IntegrationLogger.d(TAG, "Ad break already active. Ignoring.");
+                return;
+            }
             activeAdBreak = adBreakStarted.getAdBreak();
-            convivaVideoAnalytics.reportAdBreakStarted(ConvivaSdkConstants.AdPlayer.CONTENT, ConvivaSdkConstants.AdType.CLIENT_SIDE);
+            reportClientSideAdBreakStarted();
         }
     };
 
     private final EventListener<PlayerEvent.AdBreakFinished> onAdBreakFinished = new EventListener<PlayerEvent.AdBreakFinished>() {
         @Override
         public void onEvent(PlayerEvent.AdBreakFinished adBreakFinished) {
-            Log.d(TAG, "[Player Event] AdBreakFinished");
-            convivaVideoAnalytics.reportAdBreakEnded();
+            IntegrationLogger.d(TAG, "[Player Event] AdBreakFinished");
+            if (!sessionState.finishAdBreak(SessionStateMachine.State.CLIENT_AD_BREAK)) {
+                IntegrationLogger.d(TAG, "No client side ad break active. Ignoring.");
+                return;
+            }
+            reportAdBreakEnded();
             activeAdBreak = null;
         }
     };
@@ -784,35 +1490,76 @@ public class ConvivaAnalyticsIntegration {
     private final EventListener<PlayerEvent.AdStarted> onAdStartedListener = new EventListener<PlayerEvent.AdStarted>() {
         @Override
         public void onEvent(PlayerEvent.AdStarted adStartedEvent) {
-            Log.d(TAG, "[Player Event] AdStarted");
-            Map<String, Object> adInfo = adStartedToAdInfo(adStartedEvent);
+            IntegrationLogger.d(TAG, "[Player Event] AdStarted");
+            reportClientSideAdStarted(adStartedEvent);
+        }
+    };
+
+    private void reportClientSideAdStarted(PlayerEvent.AdStarted adStartedEvent) {
+        Map<String, Object> adFields = adStartedToAdFields(adStartedEvent);
+        int width = 0;
+        int height = 0;
+        Integer bitrate = null;
+        Ad ad = adStartedEvent.getAd();
+        if (ad != null) {
+            width = ad.getWidth();
+            height = ad.getHeight();
+            AdData adData = ad.getData();
+            if (adData != null) {
+                bitrate = adData.getBitrate();
+            }
+        }
+        final int adWidth = width;
+        final int adHeight = height;
+        final Integer adBitrate = bitrate;
+
+        setLastReportedAdPlayerState(ConvivaSdkConstants.PlayerState.PLAYING);
+        dispatch("reportAdStarted", () -> {
+            AdInfoTemplate template = clientSideAdInfoTemplate.withMainContent(convivaVideoAnalytics.getMetadataInfo());
+            clientSideAdInfoTemplate = template;
+            Map<String, Object> adInfo = template.newAdInfo(adFields);
             convivaAdAnalytics.reportAdLoaded(adInfo);
             convivaAdAnalytics.reportAdStarted(adInfo);
             convivaAdAnalytics.reportAdMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, ConvivaSdkConstants.PlayerState.PLAYING);
-            Ad ad = adStartedEvent.getAd();
-            if (ad != null) {
-                if (ad.getWidth() != 0 && ad.getHeight() != 0) {
-                    convivaAdAnalytics.reportAdMetric(ConvivaSdkConstants.PLAYBACK.RESOLUTION, ad.getWidth(), ad.getHeight());
-                }
-                AdData adData = ad.getData();
-                if (adData != null && adData.getBitrate() != null) {
-                    convivaAdAnalytics.reportAdMetric(ConvivaSdkConstants.PLAYBACK.BITRATE, adData.getBitrate());
-                }
+            if (adWidth != 0 && adHeight != 0) {
+                convivaAdAnalytics.reportAdMetric(ConvivaSdkConstants.PLAYBACK.RESOLUTION, adWidth, adHeight);
             }
-        }
-    };
+            if (adBitrate != null) {
+                convivaAdAnalytics.reportAdMetric(ConvivaSdkConstants.PLAYBACK.BITRATE, adBitrate);
+            }
+        });
+    }
 
-    private Map<String, Object> adStartedToAdInfo(PlayerEvent.AdStarted adStartedEvent) {
-        Map<String, Object> adInfo = new HashMap<>();
+    private void reportClientSideAdBreakStarted() {
+        dispatch("reportAdBreakStarted", () -> convivaVideoAnalytics.reportAdBreakStarted(ConvivaSdkConstants.AdPlayer.CONTENT, ConvivaSdkConstants.AdType.CLIENT_SIDE));
+    }
+
+    private void reportAdBreakEnded() {
+        dispatch("reportAdBreakEnded", () -> convivaVideoAnalytics.reportAdBreakEnded());
+    }
+
+    private void reportAdEnded() {
+        dispatch("reportAdEnded", () -> convivaAdAnalytics.reportAdEnded());
+        setLastReportedAdPlayerState(null);
+    }
 
-        adInfo.put("c3.ad.id", "NA");
-        adInfo.put("c3.ad.system", "NA");
-        adInfo.put("c3.ad.mediaFileApiFramework", "NA");
-        adInfo.put("c3.ad.firstAdSystem", "NA");
-        adInfo.put("c3.ad.firstAdId", "NA");
-        adInfo.put("c3.ad.firstCreativeId", "NA");
+    private void reportAdSkipped() {
+        dispatch("reportAdSkipped", () -> convivaAdAnalytics.reportAdSkipped());
+        setLastReportedAdPlayerState(null);
+    }
+
+    private void reportAdFailed(String message) {
+        dispatch("reportAdFailed", () -> convivaAdAnalytics.reportAdFailed(message));
+        setLastReportedAdPlayerState(null);
+    }
+
+    /**
+     * Collects the fields of the started ad, which are reported on top of the client side ad info
+     * template.
+     */
+    private Map<String, Object> adStartedToAdFields(PlayerEvent.AdStarted adStartedEvent) {
+        Map<String, Object> adInfo = new HashMap<>();
 
-        adInfo.put("c3.ad.technology", "Client Side");
         if (adStartedEvent.getClientType() == AdSourceType.Ima) {
             String imaSdkVersion;
             if (metadataOverrides != null && metadataOverrides.getImaSdkVersion() != null) {
@@ -822,19 +1569,13 @@ public class ConvivaAnalyticsIntegration {
             }
             adInfo.put(ConvivaSdkConstants.FRAMEWORK_NAME, "Google IMA SDK");
             adInfo.put(ConvivaSdkConstants.FRAMEWORK_VERSION, imaSdkVersion);
-        } else {
-            adInfo.put(ConvivaSdkConstants.FRAMEWORK_NAME, "Bitmovin");
-            adInfo.put(ConvivaSdkConstants.FRAMEWORK_VERSION, Player.getSdkVersion());
         }
 
-        // default value for isSlate is false for Custom Ad Manager integration
-        adInfo.put("c3.ad.isSlate", "false");
-
         double scheduleTime;
         if (activeAdBreak != null) {
             scheduleTime = activeAdBreak.getScheduleTime();
         } else {
-            Log.w(
+            IntegrationLogger.w(
                     TAG,
                     "No active ad break found. Using ad start time as ad position. " +
                             "This may result in inaccurate ad position reporting."
@@ -843,7 +1584,6 @@ public class ConvivaAnalyticsIntegration {
         }
         adInfo.put("c3.ad.position", getAdPosition(scheduleTime));
         adInfo.put(ConvivaSdkConstants.DURATION, adStartedEvent.getDuration());
-        adInfo.put(ConvivaSdkConstants.IS_LIVE, convivaVideoAnalytics.getMetadataInfo().get(ConvivaSdkConstants.IS_LIVE));
 
         Ad ad = adStartedEvent.getAd();
         if (ad != null) {
@@ -855,13 +1595,13 @@ public class ConvivaAnalyticsIntegration {
             }
 
             if (ad.getData() instanceof VastAdData) {
-                setVastAdMetadata((VastAdData) ad.getData(), adInfo);
+                setVastAdMetadata((VastAdData) ad.getData(), adInfo, !lowOverhead);
             }
         }
         return adInfo;
     }
 
-    private static void setVastAdMetadata(VastAdData vastAdData, Map<String, Object> adInfo) {
+    private static void setVastAdMetadata(VastAdData vastAdData, Map<String, Object> adInfo, boolean includeWrapperChain) {
         if (vastAdData.getAdTitle() != null) {
             adInfo.put(ConvivaSdkConstants.ASSET_NAME, vastAdData.getAdTitle());
         }
@@ -874,6 +1614,9 @@ public class ConvivaAnalyticsIntegration {
         if (vastAdData.getAdSystem() != null) {
             adInfo.put("c3.ad.system", vastAdData.getAdSystem().getName());
         }
+        if (!includeWrapperChain) {
+            return;
+        }
         List<AdSystem> wrapperAdSystems = vastAdData.getWrapperAdSystems();
         if (!wrapperAdSystems.isEmpty()) {
             adInfo.put("c3.ad.firstAdSystem", wrapperAdSystems.get(wrapperAdSystems.size() - 1).getName());
@@ -901,40 +1644,62 @@ public class ConvivaAnalyticsIntegration {
     private final EventListener<PlayerEvent.AdFinished> onAdFinishedListener = new EventListener<PlayerEvent.AdFinished>() {
         @Override
         public void onEvent(PlayerEvent.AdFinished adFinished) {
-            Log.d(TAG, "[Player Event] AdFinished");
-            convivaAdAnalytics.reportAdEnded();
+            IntegrationLogger.d(TAG, "[Player Event] AdFinished");
+            reportAdEnded();
         }
     };
 
     private final EventListener<PlayerEvent.AdSkipped> onAdSkippedListener = new EventListener<PlayerEvent.AdSkipped>() {
         @Override
         public void onEvent(PlayerEvent.AdSkipped adSkipped) {
-            Log.d(TAG, "[Player Event] AdSkipped");
-            convivaAdAnalytics.reportAdSkipped();
+            IntegrationLogger.d(TAG, "[Player Event] AdSkipped");
+            reportAdSkipped();
         }
     };
 
     private final EventListener<PlayerEvent.AdError> onAdErrorListener = new EventListener<PlayerEvent.AdError>() {
         @Override
         public void onEvent(PlayerEvent.AdError adError) {
-            Log.d(TAG, "[Player Event] AdError");
-            convivaAdAnalytics.reportAdFailed(adError.getMessage());
+            IntegrationLogger.d(TAG, "[Player Event] AdError");
+            reportAdFailed(adError.getMessage());
         }
     };
 
     // endregion
 
     private final EventListener<PlayerEvent.VideoPlaybackQualityChanged> onVideoPlaybackQualityChangedListener = videoPlaybackQualityChangedEvent -> {
-        Log.d(TAG, "[Player Event] VideoPlaybackQualityChanged");
-        updateSession();
+        IntegrationLogger.d(TAG, "[Player Event] VideoPlaybackQualityChanged");
+        PlayerDecorator attachedPlayer = player;
+        if (attachedPlayer != null && !sessionState.isSampledOut()) {
+            // quality metrics are reported immediately, only the content metadata update is coalesced
+            updatePlaybackVideoData(attachedPlayer);
+        }
+        videoQualityUpdate.request();
     };
 
+    private void reportPlayHeadTime(long playHeadTimeMillis) {
+        if (!sdkDispatcher.isBackground()) {
+            sdkDispatcher.onDirectCall("reportPlaybackMetric");
+            convivaVideoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAY_HEAD_TIME, playHeadTimeMillis);
+            return;
+        }
+        dispatchDroppable("reportPlaybackMetric", () -> convivaVideoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAY_HEAD_TIME, playHeadTimeMillis));
+    }
+
     private final EventListener<PlayerEvent.TimeChanged> onTimeChangedListener = new EventListener<PlayerEvent.TimeChanged>() {
         @Override
         public void onEvent(PlayerEvent.TimeChanged timeChangedEvent) {
-            if (isSessionActive) {
-                convivaVideoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAY_HEAD_TIME, player.getPlayHeadTimeMillis());
+            if (!sessionState.isSessionActive()) {
+                return;
+            }
+            if (lowOverhead) {
+                long nowNanos = System.nanoTime();
+                if (nowNanos - nextPlayheadReportNanos < 0) {
+                    return;
+                }
+                nextPlayheadReportNanos = nowNanos + LOW_OVERHEAD_PLAYHEAD_INTERVAL_NANOS;
             }
+            reportPlayHeadTime(player.getPlayHeadTimeMillis());
         }
     };
 }
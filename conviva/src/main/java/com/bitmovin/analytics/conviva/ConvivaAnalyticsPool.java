@@ -0,0 +1,123 @@
+package com.bitmovin.analytics.conviva;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.conviva.sdk.ConvivaAdAnalytics;
+import com.conviva.sdk.ConvivaAnalytics;
+import com.conviva.sdk.ConvivaSdkConstants;
+import com.conviva.sdk.ConvivaVideoAnalytics;
+
+import java.util.ArrayDeque;
+
+/**
+ * Pool of prepared Conviva video and ad analytics.
+ * <p>
+ * Building the analytics and setting the player info is moved off the session start path of
+ * integrations created with this pool. Use it when integrations are created and released frequently,
+ * e.g. one integration per item of a short video feed. Released integrations return their analytics
+ * to the pool, so the next integration can reuse them.
+ */
+public final class ConvivaAnalyticsPool {
+    private final Context context;
+    private final int capacity;
+    private final ArrayDeque<PooledAnalytics> availableAnalytics = new ArrayDeque<>();
+    private boolean released = false;
+
+    /**
+     * @param capacity Maximum number of analytics kept in the pool.
+     */
+    public ConvivaAnalyticsPool(Context context, String customerKey, ConvivaConfig config, int capacity) {
+        this.context = context;
+        this.capacity = capacity;
+        SharedConvivaSdk.acquire(context, customerKey, ConvivaAnalyticsIntegration.createSdkSettings(config));
+    }
+
+    /**
+     * Prepares analytics until the pool is filled up to its capacity. Call this ahead of time, e.g.
+     * while the app is idle, on the thread the integrations are created on.
+     */
+    public synchronized void prewarm() {
+        while (!released && availableAnalytics.size() < capacity) {
+            availableAnalytics.push(build());
+        }
+    }
+
+    public synchronized int getAvailableCount() {
+        return availableAnalytics.size();
+    }
+
+    /**
+     * Releases all pooled analytics and the Conviva SDK, if no integration uses it anymore.
+     * Analytics returned afterwards are released instead of pooled.
+     */
+    public synchronized void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        PooledAnalytics pooledAnalytics;
+        while ((pooledAnalytics = availableAnalytics.poll()) != null) {
+            pooledAnalytics.release();
+        }
+        SharedConvivaSdk.releaseReference();
+        SharedConvivaSdk.releaseIfUnreferenced();
+    }
+
+    /**
+     * Takes prepared analytics from the pool, or builds new ones if the pool is empty.
+     */
+    @NonNull
+    synchronized PooledAnalytics acquire() {
+        PooledAnalytics pooledAnalytics = availableAnalytics.poll();
+        return pooledAnalytics != null ? pooledAnalytics : build();
+    }
+
+    /**
+     * Returns analytics of a released integration. The analytics must not have an active session.
+     * They are reset before they are pooled again.
+     */
+    synchronized void recycle(@NonNull PooledAnalytics pooledAnalytics) {
+        pooledAnalytics.reset();
+        if (released || availableAnalytics.size() >= capacity) {
+            pooledAnalytics.release();
+        } else {
+            availableAnalytics.push(pooledAnalytics);
+        }
+    }
+
+    private PooledAnalytics build() {
+        ConvivaVideoAnalytics videoAnalytics = ConvivaAnalytics.buildVideoAnalytics(context);
+        ConvivaAdAnalytics adAnalytics = ConvivaAnalytics.buildAdAnalytics(context, videoAnalytics);
+        videoAnalytics.setPlayerInfo(ConvivaAnalyticsIntegration.PLAYER_INFO);
+        adAnalytics.setAdPlayerInfo(ConvivaAnalyticsIntegration.PLAYER_INFO);
+        return new PooledAnalytics(videoAnalytics, adAnalytics);
+    }
+
+    static final class PooledAnalytics {
+        final ConvivaVideoAnalytics videoAnalytics;
+        final ConvivaAdAnalytics adAnalytics;
+
+        PooledAnalytics(ConvivaVideoAnalytics videoAnalytics, ConvivaAdAnalytics adAnalytics) {
+            this.videoAnalytics = videoAnalytics;
+            this.adAnalytics = adAnalytics;
+        }
+
+        /**
+         * Resets the state which outlives a session. The content info is bound to the session ended by
+         * <code>reportPlaybackEnded</code>, and the next session reports its full content info with
+         * <code>reportPlaybackRequested</code>, so it is not carried over.
+         */
+        void reset() {
+            videoAnalytics.setCallback(null);
+            adAnalytics.setCallback(null);
+            videoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, ConvivaSdkConstants.PlayerState.STOPPED);
+        }
+
+        void release() {
+            adAnalytics.release();
+            videoAnalytics.release();
+        }
+    }
+}
@@ -1,8 +1,28 @@
 package com.bitmovin.analytics.conviva;
 
 public class ConvivaConfig {
+    public static final int DEFAULT_DISPATCH_QUEUE_CAPACITY = 256;
+    public static final long DEFAULT_EVENT_REORDER_WINDOW_MS = 100;
+    public static final long DEFAULT_PRE_SESSION_EVENT_MAX_AGE_MS = 30_000;
+    public static final int DEFAULT_ERROR_STACK_TRACE_MAX_FRAMES = 30;
+    public static final int DEFAULT_ERROR_STACK_TRACE_MAX_CHARS = 4096;
+    public static final double DEFAULT_SESSION_SAMPLING_RATE = 1.0;
+
     private String gatewayUrl;
     private boolean debugLoggingEnabled;
+    private PlayheadReportingMode playheadReportingMode = PlayheadReportingMode.PUSH;
+    private boolean backgroundDispatchEnabled;
+    private int dispatchQueueCapacity = DEFAULT_DISPATCH_QUEUE_CAPACITY;
+    private long eventReorderWindowMs = DEFAULT_EVENT_REORDER_WINDOW_MS;
+    private boolean muteEventTrackingEnabled = true;
+    private boolean integrationMetricsEnabled;
+    private boolean deferredInitializationEnabled;
+    private int preSessionEventBufferCapacity;
+    private long preSessionEventMaxAgeMs = DEFAULT_PRE_SESSION_EVENT_MAX_AGE_MS;
+    private int errorStackTraceMaxFrames = DEFAULT_ERROR_STACK_TRACE_MAX_FRAMES;
+    private int errorStackTraceMaxChars = DEFAULT_ERROR_STACK_TRACE_MAX_CHARS;
+    private double sessionSamplingRate = DEFAULT_SESSION_SAMPLING_RATE;
+    private TrackingProfile trackingProfile = TrackingProfile.FULL;
 
     public ConvivaConfig() {
 
@@ -23,4 +43,219 @@ public class ConvivaConfig {
     public void setDebugLoggingEnabled(boolean debugLoggingEnabled) {
         this.debugLoggingEnabled = debugLoggingEnabled;
     }
+
+    public PlayheadReportingMode getPlayheadReportingMode() {
+        return playheadReportingMode;
+    }
+
+    /**
+     * Defines how the playhead time is reported to Conviva.
+     * Default is {@link PlayheadReportingMode#PUSH}.
+     */
+    public void setPlayheadReportingMode(PlayheadReportingMode playheadReportingMode) {
+        this.playheadReportingMode = playheadReportingMode;
+    }
+
+    public boolean isBackgroundDispatchEnabled() {
+        return backgroundDispatchEnabled;
+    }
+
+    /**
+     * If enabled, player values are collected on the player event thread and all calls into the
+     * Conviva SDK are executed in order on a dedicated background thread.
+     * Default is <code>false</code>.
+     */
+    public void setBackgroundDispatchEnabled(boolean backgroundDispatchEnabled) {
+        this.backgroundDispatchEnabled = backgroundDispatchEnabled;
+    }
+
+    public int getDispatchQueueCapacity() {
+        return dispatchQueueCapacity;
+    }
+
+    /**
+     * Maximum number of pending Conviva SDK calls if background dispatching is enabled.
+     * While more calls are pending, playhead and video quality metrics are dropped. Session and ad
+     * lifecycle calls are never dropped.
+     * Default is {@value #DEFAULT_DISPATCH_QUEUE_CAPACITY}.
+     */
+    public void setDispatchQueueCapacity(int dispatchQueueCapacity) {
+        this.dispatchQueueCapacity = dispatchQueueCapacity;
+    }
+
+    public long getEventReorderWindowMs() {
+        return eventReorderWindowMs;
+    }
+
+    /**
+     * Time in milliseconds for which <code>Paused</code>, <code>StallEnded</code> and
+     * <code>SourceEvent.Unloaded</code> events are held back to allow a following error to be reported
+     * first. Held back events are released early as soon as another player event arrives.
+     * A value of <code>0</code> disables holding back events.
+     * Default is {@value #DEFAULT_EVENT_REORDER_WINDOW_MS}.
+     */
+    public void setEventReorderWindowMs(long eventReorderWindowMs) {
+        this.eventReorderWindowMs = eventReorderWindowMs;
+    }
+
+    public boolean isMuteEventTrackingEnabled() {
+        return muteEventTrackingEnabled;
+    }
+
+    /**
+     * If disabled, the integration does not subscribe to <code>Muted</code> and <code>Unmuted</code>
+     * events and does not report them as custom playback events.
+     * Default is <code>true</code>.
+     */
+    public void setMuteEventTrackingEnabled(boolean muteEventTrackingEnabled) {
+        this.muteEventTrackingEnabled = muteEventTrackingEnabled;
+    }
+
+    public boolean isIntegrationMetricsEnabled() {
+        return integrationMetricsEnabled;
+    }
+
+    /**
+     * If enabled, the integration counts and times the handling of player events and counts the
+     * Conviva SDK calls. Use {@link ConvivaAnalyticsIntegration#getIntegrationMetrics()} to read them.
+     * Default is <code>false</code>.
+     */
+    public void setIntegrationMetricsEnabled(boolean integrationMetricsEnabled) {
+        this.integrationMetricsEnabled = integrationMetricsEnabled;
+    }
+
+    public boolean isDeferredInitializationEnabled() {
+        return deferredInitializationEnabled;
+    }
+
+    /**
+     * If enabled, the Conviva SDK is initialized and the analytics are built on the background dispatch
+     * thread instead of in the constructor of {@link ConvivaAnalyticsIntegration}. Calls made before
+     * the initialization completed are queued and executed afterwards in order. Implies
+     * {@link #setBackgroundDispatchEnabled(boolean)}. Has no effect for integrations using a
+     * {@link ConvivaAnalyticsPool}.
+     * Default is <code>false</code>.
+     */
+    public void setDeferredInitializationEnabled(boolean deferredInitializationEnabled) {
+        this.deferredInitializationEnabled = deferredInitializationEnabled;
+    }
+
+    public int getPreSessionEventBufferCapacity() {
+        return preSessionEventBufferCapacity;
+    }
+
+    /**
+     * Maximum number of player events buffered while no session is active and no asset name is
+     * available. Instead of initializing a session with incomplete content metadata on
+     * <code>Play</code> or <code>AdBreakStarted</code>, these and following events are buffered until
+     * the asset name is available, either from the player source or via
+     * {@link ConvivaAnalyticsIntegration#updateContentMetadata(MetadataOverrides)}. The session is
+     * then initialized and the buffered events are handled in order. Errors initialize the session
+     * immediately. If the buffer is full, the oldest event is dropped.
+     * A value of <code>0</code> disables the buffer.
+     * Default is <code>0</code>.
+     */
+    public void setPreSessionEventBufferCapacity(int preSessionEventBufferCapacity) {
+        this.preSessionEventBufferCapacity = preSessionEventBufferCapacity;
+    }
+
+    public long getPreSessionEventMaxAgeMs() {
+        return preSessionEventMaxAgeMs;
+    }
+
+    /**
+     * Time in milliseconds after which buffered pre-session events are dropped instead of handled
+     * once the session is initialized.
+     * Default is {@value #DEFAULT_PRE_SESSION_EVENT_MAX_AGE_MS}.
+     */
+    public void setPreSessionEventMaxAgeMs(long preSessionEventMaxAgeMs) {
+        this.preSessionEventMaxAgeMs = preSessionEventMaxAgeMs;
+    }
+
+    public int getErrorStackTraceMaxFrames() {
+        return errorStackTraceMaxFrames;
+    }
+
+    /**
+     * Maximum number of stack frames, including the frames of causes, reported with the stack trace
+     * of an error event. The stack trace is serialized on the background dispatch thread if
+     * {@link #setBackgroundDispatchEnabled(boolean)} is enabled, otherwise on the player event thread.
+     * Default is {@value #DEFAULT_ERROR_STACK_TRACE_MAX_FRAMES}.
+     */
+    public void setErrorStackTraceMaxFrames(int errorStackTraceMaxFrames) {
+        this.errorStackTraceMaxFrames = errorStackTraceMaxFrames;
+    }
+
+    public int getErrorStackTraceMaxChars() {
+        return errorStackTraceMaxChars;
+    }
+
+    /**
+     * Maximum number of characters, not bytes, of the stack trace reported with an error event.
+     * Longer stack traces are cut off.
+     * Default is {@value #DEFAULT_ERROR_STACK_TRACE_MAX_CHARS}.
+     */
+    public void setErrorStackTraceMaxChars(int errorStackTraceMaxChars) {
+        this.errorStackTraceMaxChars = errorStackTraceMaxChars;
+    }
+
+    public double getSessionSamplingRate() {
+        return sessionSamplingRate;
+    }
+
+    /**
+     * Share of sessions tracked with Conviva, between <code>0.0</code> and <code>1.0</code>. Whether a
+     * session is tracked is decided deterministically from the viewer id and the asset name when the
+     * session is initialized. For sessions which are not tracked, no content metadata is built, the
+     * <code>TimeChanged</code> and <code>VideoPlaybackQualityChanged</code> listeners are removed
+     * and no Conviva SDK calls are made until the session ends.
+     * Default is {@value #DEFAULT_SESSION_SAMPLING_RATE}.
+     */
+    public void setSessionSamplingRate(double sessionSamplingRate) {
+        this.sessionSamplingRate = sessionSamplingRate;
+    }
+
+    public TrackingProfile getTrackingProfile() {
+        return trackingProfile;
+    }
+
+    /**
+     * Defines how much work the integration spends on tracking, e.g. to reduce its CPU share on low-end
+     * devices.
+     * Default is {@link TrackingProfile#FULL}.
+     */
+    public void setTrackingProfile(TrackingProfile trackingProfile) {
+        this.trackingProfile = trackingProfile;
+    }
+
+    public enum TrackingProfile {
+        /**
+         * {@link #LOW_OVERHEAD} on devices reported as low RAM devices by
+         * <code>ActivityManager.isLowRamDevice()</code>, {@link #FULL} otherwise.
+         */
+        AUTO,
+        /**
+         * All supported events and metadata are tracked.
+         */
+        FULL,
+        /**
+         * Core playback metrics are tracked with less work per event: the playhead time is reported at
+         * most once per second, content metadata updates on video quality changes are coalesced,
+         * <code>Muted</code> and <code>Unmuted</code> events are not tracked and the first ad system, ad
+         * id and creative id of VAST wrapper chains are not reported.
+         */
+        LOW_OVERHEAD
+    }
+
+    public enum PlayheadReportingMode {
+        /**
+         * The playhead time is reported on every <code>PlayerEvent.TimeChanged</code> event.
+         */
+        PUSH,
+        /**
+         * The playhead time is read by the Conviva SDK once per heartbeat.
+         * No <code>PlayerEvent.TimeChanged</code> listener is registered in this mode.
+         */
+        PULL
+    }
 }
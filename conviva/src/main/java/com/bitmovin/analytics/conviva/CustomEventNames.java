@@ -0,0 +1,51 @@
+package com.bitmovin.analytics.conviva;
+
+import com.bitmovin.player.api.event.Event;
+import com.bitmovin.player.api.event.PlayerEvent;
+import com.bitmovin.player.api.event.SourceEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the names of custom playback events reported for player events.
+ * <p>
+ * The name is <code>"on"</code> followed by the simple class name of the event, e.g.
+ * <code>onMuted</code>. Names of events reported by the integration are precomputed, names of other
+ * event classes are computed once and cached.
+ */
+class CustomEventNames {
+    private static final Map<Class<?>, String> KNOWN_EVENT_NAMES = createKnownEventNames();
+    private static final Map<Class<?>, String> resolvedEventNames = new ConcurrentHashMap<>();
+
+    private CustomEventNames() {
+    }
+
+    static String of(Event event) {
+        Class<?> eventClass = event.getClass();
+        String name = KNOWN_EVENT_NAMES.get(eventClass);
+        if (name != null) {
+            return name;
+        }
+        name = resolvedEventNames.get(eventClass);
+        if (name == null) {
+            name = createName(eventClass);
+            resolvedEventNames.put(eventClass, name);
+        }
+        return name;
+    }
+
+    private static Map<Class<?>, String> createKnownEventNames() {
+        Map<Class<?>, String> eventNames = new HashMap<>();
+        eventNames.put(PlayerEvent.Muted.class, createName(PlayerEvent.Muted.class));
+        eventNames.put(PlayerEvent.Unmuted.class, createName(PlayerEvent.Unmuted.class));
+        eventNames.put(PlayerEvent.Error.class, createName(PlayerEvent.Error.class));
+        eventNames.put(SourceEvent.Error.class, createName(SourceEvent.Error.class));
+        return eventNames;
+    }
+
+    private static String createName(Class<?> eventClass) {
+        return "on" + eventClass.getSimpleName();
+    }
+}
@@ -1,14 +1,23 @@
 package com.bitmovin.analytics.conviva;
 
+import androidx.annotation.Nullable;
+
 import com.bitmovin.analytics.conviva.helper.WithEventEmitter;
 import com.bitmovin.player.api.Player;
 import com.bitmovin.player.api.media.video.quality.VideoQuality;
+import com.bitmovin.player.api.source.Source;
 import com.conviva.sdk.ConvivaSdkConstants;
 
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DefaultPlayerDecorator implements PlayerDecorator {
+    private static final int MAX_CACHED_VIDEO_QUALITIES = 32;
+
     private final Player player;
+    private final Map<String, VideoQualitySnapshot> videoQualitySnapshots = new ConcurrentHashMap<>();
 
     public DefaultPlayerDecorator(Player player) {
         this.player = player;
@@ -29,21 +38,42 @@ public class DefaultPlayerDecorator implements PlayerDecorator {
 
     @Override
     public HashMap<String, Object[]> getPlaybackVideoData() {
-        HashMap<String, Object[]> videoData = new HashMap<>();
+        VideoQualitySnapshot videoQuality = getPlaybackVideoQuality();
+        return videoQuality != null ? videoQuality.toPlaybackVideoData() : new HashMap<>();
+    }
+
+    @Nullable
+    @Override
+    public VideoQualitySnapshot getPlaybackVideoQuality() {
         VideoQuality playbackVideoData = player.getPlaybackVideoData();
-        if (playbackVideoData != null) {
-            videoData.put(ConvivaSdkConstants.PLAYBACK.RESOLUTION, new Object[]{playbackVideoData.getWidth(), playbackVideoData.getHeight()});
-            final int peakBitrate = playbackVideoData.getPeakBitrate();
-            if (peakBitrate != VideoQuality.BITRATE_NO_VALUE) {
-                videoData.put(ConvivaSdkConstants.PLAYBACK.BITRATE, new Object[]{peakBitrate / 1000});
-            }
-            final int averageBitrate = playbackVideoData.getAverageBitrate();
-            if (averageBitrate != VideoQuality.BITRATE_NO_VALUE) {
-                videoData.put(ConvivaSdkConstants.PLAYBACK.AVG_BITRATE, new Object[]{averageBitrate / 1000});
+        if (playbackVideoData == null) {
+            return null;
+        }
+
+        // Renditions are revisited frequently on ABR streams, so reuse the snapshot of a known quality
+        String id = playbackVideoData.getId();
+        VideoQualitySnapshot snapshot = videoQualitySnapshots.get(id);
+        if (snapshot == null || !snapshot.hasValues(
+                playbackVideoData.getWidth(),
+                playbackVideoData.getHeight(),
+                playbackVideoData.getPeakBitrate(),
+                playbackVideoData.getAverageBitrate(),
+                playbackVideoData.getFrameRate()
+        )) {
+            snapshot = new VideoQualitySnapshot(
+                    id,
+                    playbackVideoData.getWidth(),
+                    playbackVideoData.getHeight(),
+                    playbackVideoData.getPeakBitrate(),
+                    playbackVideoData.getAverageBitrate(),
+                    playbackVideoData.getFrameRate()
+            );
+            if (videoQualitySnapshots.size() >= MAX_CACHED_VIDEO_QUALITIES) {
+                videoQualitySnapshots.clear();
             }
-            videoData.put(ConvivaSdkConstants.PLAYBACK.RENDERED_FRAMERATE, new Object[]{Math.round(playbackVideoData.getFrameRate())});
+            videoQualitySnapshots.put(id, snapshot);
         }
-        return videoData;
+        return snapshot;
     }
 
     @Override
@@ -61,6 +91,21 @@ public class DefaultPlayerDecorator implements PlayerDecorator {
         return player.getSource() == null ? null : player.getSource().getConfig().getUrl();
     }
 
+    @Nullable
+    @Override
+    public SourceMetadata getUpcomingSourceMetadata() {
+        Source source = player.getSource();
+        if (source == null) {
+            return null;
+        }
+        List<Source> sources = player.getPlaylist().getSources();
+        int index = sources.indexOf(source);
+        if (index < 0 || index + 1 >= sources.size()) {
+            return null;
+        }
+        return SourceMetadata.of(sources.get(index + 1));
+    }
+
 
     @Override
     public boolean isAd() {
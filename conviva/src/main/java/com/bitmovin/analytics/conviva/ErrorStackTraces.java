@@ -0,0 +1,89 @@
+package com.bitmovin.analytics.conviva;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializes the data of error events into bounded stack traces reported as custom event attributes.
+ * <p>
+ * Throwables are serialized with at most the configured number of frames, including their causes,
+ * and every trace is cut at the configured number of characters. Each distinct trace is only reported once per
+ * session; repeated traces only report their id. Traces are compared by their full content, so traces
+ * with colliding ids are still reported.
+ */
+class ErrorStackTraces {
+    static final String STACK_TRACE_ATTRIBUTE = "stack trace";
+    static final String STACK_TRACE_ID_ATTRIBUTE = "stack trace id";
+    private static final int MAX_CAUSES = 8;
+    // bounds the memory held per session, traces exceeding it are reported in full again
+    private static final int MAX_REPORTED_STACK_TRACES = 64;
+
+    private final int maxFrames;
+    private final int maxChars;
+    private final Set<String> reportedStackTraces = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    ErrorStackTraces(int maxFrames, int maxChars) {
+        this.maxFrames = maxFrames;
+        this.maxChars = maxChars;
+    }
+
+    /**
+     * Builds the custom event attributes for the given error data. Called in the dispatched Conviva
+     * SDK call, in order with {@link #reset()}.
+     */
+    Map<String, Object> toAttributes(Object errorData) {
+        String stackTrace = serialize(errorData);
+        String hexId = Integer.toHexString(stackTrace.hashCode());
+        if (reportedStackTraces.contains(stackTrace)) {
+            return Collections.singletonMap(STACK_TRACE_ID_ATTRIBUTE, hexId);
+        }
+        if (reportedStackTraces.size() < MAX_REPORTED_STACK_TRACES) {
+            reportedStackTraces.add(stackTrace);
+        }
+        Map<String, Object> attributes = new HashMap<>(4);
+        attributes.put(STACK_TRACE_ATTRIBUTE, stackTrace);
+        attributes.put(STACK_TRACE_ID_ATTRIBUTE, hexId);
+        return attributes;
+    }
+
+    /**
+     * Forgets the reported stack traces, e.g. when a new session starts.
+     */
+    void reset() {
+        reportedStackTraces.clear();
+    }
+
+    String serialize(Object errorData) {
+        if (!(errorData instanceof Throwable)) {
+            return truncate(String.valueOf(errorData));
+        }
+        StringBuilder stackTrace = new StringBuilder(Math.min(maxChars, 1024));
+        int frameCount = 0;
+        int causeCount = 0;
+        Throwable throwable = (Throwable) errorData;
+        while (throwable != null && causeCount <= MAX_CAUSES && stackTrace.length() < maxChars) {
+            if (causeCount > 0) {
+                stackTrace.append("\nCaused by: ");
+            }
+            stackTrace.append(throwable);
+            for (StackTraceElement frame : throwable.getStackTrace()) {
+                if (frameCount >= maxFrames || stackTrace.length() >= maxChars) {
+                    break;
+                }
+                stackTrace.append("\n\tat ").append(frame);
+                frameCount++;
+            }
+            Throwable cause = throwable.getCause();
+            throwable = cause != throwable ? cause : null;
+            causeCount++;
+        }
+        return truncate(stackTrace.toString());
+    }
+
+    private String truncate(String stackTrace) {
+        return stackTrace.length() > maxChars ? stackTrace.substring(0, maxChars) : stackTrace;
+    }
+}
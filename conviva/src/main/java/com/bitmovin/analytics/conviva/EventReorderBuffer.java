@@ -0,0 +1,181 @@
+package com.bitmovin.analytics.conviva;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Holds back the handling of selected player events for a short window.
+ * <p>
+ * The player emits some events before a related error event (e.g. <code>Paused</code> or
+ * <code>SourceEvent.Unloaded</code> before <code>Error</code>). Holding them back allows the error to be
+ * reported first. Held back events are released in their original order once the window elapsed, or
+ * earlier as soon as another event is handled.
+ * <p>
+ * Held back events are only accessed on the main thread, which the player emits its events on.
+ * {@link #release()} and {@link #clear()} may be called from any thread and are posted to the main
+ * thread if needed. Their variants taking a follow-up action run it after the held back events were
+ * handled or discarded, on the same thread.
+ */
+class EventReorderBuffer {
+    private final long windowMs;
+    private final ArrayDeque<HeldEvent> heldEvents = new ArrayDeque<>();
+    private final Runnable releaseRunnable = () -> {
+        releaseScheduled = false;
+        release();
+    };
+    private final Runnable releaseOnMainThreadRunnable = this::releaseOnMainThread;
+    private final Runnable clearRunnable = this::clearOnMainThread;
+    // created on the main thread when the first event is held back
+    @Nullable
+    private volatile Handler handler;
+    private boolean releaseScheduled = false;
+
+    EventReorderBuffer(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    /**
+     * Holds back the given event handling until the window elapsed or another event is handled.
+     *
+     * @param supersededByError If <code>true</code> the event handling is discarded if an error
+     *                          occurs in the meantime.
+     */
+    void hold(Runnable eventHandling, boolean supersededByError) {
+        if (windowMs <= 0) {
+            eventHandling.run();
+            return;
+        }
+
+        heldEvents.add(new HeldEvent(eventHandling, supersededByError));
+        if (!releaseScheduled) {
+            releaseScheduled = true;
+            getHandler().postDelayed(releaseRunnable, windowMs);
+        }
+    }
+
+    /**
+     * Handles all held back events in their original order. If called off the main thread, this
+     * happens asynchronously on the main thread.
+     */
+    void release() {
+        if (isOnMainThreadOrPost(releaseOnMainThreadRunnable)) {
+            releaseOnMainThread();
+        }
+    }
+
+    /**
+     * Handles all held back events in their original order and runs <code>afterRelease</code>
+     * afterwards. If called off the main thread, both happen asynchronously on the main thread.
+     */
+    void release(Runnable afterRelease) {
+        runAfter(releaseOnMainThreadRunnable, afterRelease);
+    }
+
+    private void releaseOnMainThread() {
+        cancelScheduledRelease();
+        HeldEvent heldEvent;
+        while ((heldEvent = heldEvents.poll()) != null) {
+            heldEvent.eventHandling.run();
+        }
+    }
+
+    /**
+     * Discards all held back events which are superseded by an error.
+     */
+    void discardSupersededByError() {
+        Iterator<HeldEvent> iterator = heldEvents.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().supersededByError) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Discards all held back events and cancels pending work. If called off the main thread, this
+     * happens asynchronously on the main thread.
+     */
+    void clear() {
+        if (isOnMainThreadOrPost(clearRunnable)) {
+            clearOnMainThread();
+        }
+    }
+
+    /**
+     * Discards all held back events and runs <code>afterClear</code> afterwards. If called off the
+     * main thread, both happen asynchronously on the main thread.
+     */
+    void clear(Runnable afterClear) {
+        runAfter(clearRunnable, afterClear);
+    }
+
+    private void clearOnMainThread() {
+        heldEvents.clear();
+        cancelScheduledRelease();
+    }
+
+    /**
+     * @return <code>true</code> if <code>access</code> can be run on the calling thread. Otherwise it
+     * is posted to the main thread if any event was held back so far.
+     */
+    private boolean isOnMainThreadOrPost(Runnable access) {
+        Handler currentHandler = handler;
+        if (currentHandler == null) {
+            // no event was held back yet
+            return false;
+        }
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            currentHandler.post(access);
+            return false;
+        }
+        return true;
+    }
+
+    private void runAfter(Runnable access, Runnable action) {
+        Handler currentHandler = handler;
+        if (currentHandler == null) {
+            // no event was held back yet
+            action.run();
+        } else if (Looper.myLooper() != Looper.getMainLooper()) {
+            currentHandler.post(() -> {
+                access.run();
+                action.run();
+            });
+        } else {
+            access.run();
+            action.run();
+        }
+    }
+
+    private void cancelScheduledRelease() {
+        Handler currentHandler = handler;
+        if (releaseScheduled && currentHandler != null) {
+            currentHandler.removeCallbacks(releaseRunnable);
+        }
+        releaseScheduled = false;
+    }
+
+    private Handler getHandler() {
+        Handler currentHandler = handler;
+        if (currentHandler == null) {
+            currentHandler = new Handler(Looper.getMainLooper());
+            handler = currentHandler;
+        }
+        return currentHandler;
+    }
+
+    private static class HeldEvent {
+        final Runnable eventHandling;
+        final boolean supersededByError;
+
+        HeldEvent(Runnable eventHandling, boolean supersededByError) {
+            this.eventHandling = eventHandling;
+            this.supersededByError = supersededByError;
+        }
+    }
+}
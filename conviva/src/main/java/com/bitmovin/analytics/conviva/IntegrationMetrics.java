@@ -0,0 +1,112 @@
+package com.bitmovin.analytics.conviva;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Snapshot of the overhead metrics of a {@link ConvivaAnalyticsIntegration}.
+ * <p>
+ * Listener and SDK call metrics are only collected if enabled via
+ * {@link ConvivaConfig#setIntegrationMetricsEnabled(boolean)}. Otherwise the respective maps are empty.
+ */
+public final class IntegrationMetrics {
+    @NonNull
+    private final Map<String, ListenerMetrics> listenerMetrics;
+    @NonNull
+    private final Map<String, Long> sdkCallCounts;
+    private final long suppressedStateTransitionCount;
+    private final long droppedSdkCallCount;
+
+    IntegrationMetrics(
+            @NonNull Map<String, ListenerMetrics> listenerMetrics,
+            @NonNull Map<String, Long> sdkCallCounts,
+            long suppressedStateTransitionCount,
+            long droppedSdkCallCount
+    ) {
+        this.listenerMetrics = Collections.unmodifiableMap(listenerMetrics);
+        this.sdkCallCounts = Collections.unmodifiableMap(sdkCallCounts);
+        this.suppressedStateTransitionCount = suppressedStateTransitionCount;
+        this.droppedSdkCallCount = droppedSdkCallCount;
+    }
+
+    /**
+     * Metrics per handled player event type, keyed by event name (e.g. <code>PlayerEvent.TimeChanged</code>).
+     */
+    @NonNull
+    public Map<String, ListenerMetrics> getListenerMetrics() {
+        return listenerMetrics;
+    }
+
+    /**
+     * Number of dispatched Conviva SDK calls, keyed by SDK method name.
+     */
+    @NonNull
+    public Map<String, Long> getSdkCallCounts() {
+        return sdkCallCounts;
+    }
+
+    /**
+     * @see ConvivaAnalyticsIntegration#getSuppressedStateTransitionCount()
+     */
+    public long getSuppressedStateTransitionCount() {
+        return suppressedStateTransitionCount;
+    }
+
+    /**
+     * @see ConvivaAnalyticsIntegration#getDroppedSdkCallCount()
+     */
+    public long getDroppedSdkCallCount() {
+        return droppedSdkCallCount;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "IntegrationMetrics{" +
+                "listenerMetrics=" + listenerMetrics +
+                ", sdkCallCounts=" + sdkCallCounts +
+                ", suppressedStateTransitionCount=" + suppressedStateTransitionCount +
+                ", droppedSdkCallCount=" + droppedSdkCallCount +
+                '}';
+    }
+
+    public static final class ListenerMetrics {
+        private final long invocationCount;
+        private final long totalHandlingTimeNanos;
+        private final long maxHandlingTimeNanos;
+
+        ListenerMetrics(long invocationCount, long totalHandlingTimeNanos, long maxHandlingTimeNanos) {
+            this.invocationCount = invocationCount;
+            this.totalHandlingTimeNanos = totalHandlingTimeNanos;
+            this.maxHandlingTimeNanos = maxHandlingTimeNanos;
+        }
+
+        public long getInvocationCount() {
+            return invocationCount;
+        }
+
+        /**
+         * Cumulative time spent handling the event on the player event thread, measured with
+         * {@link System#nanoTime()}.
+         */
+        public long getTotalHandlingTimeNanos() {
+            return totalHandlingTimeNanos;
+        }
+
+        public long getMaxHandlingTimeNanos() {
+            return maxHandlingTimeNanos;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "ListenerMetrics{" +
+                    "invocationCount=" + invocationCount +
+                    ", totalHandlingTimeNanos=" + totalHandlingTimeNanos +
+                    ", maxHandlingTimeNanos=" + maxHandlingTimeNanos +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.bitmovin.analytics.conviva;
+
+import com.bitmovin.analytics.conviva.helper.SdkCallDispatcher;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects listener and SDK call metrics if integration metrics are enabled.
+ */
+class IntegrationMetricsRecorder implements SdkCallDispatcher.CallObserver {
+    // populated once on creation, only the stats objects are mutated afterwards
+    private final Map<Class<?>, ListenerStats> listenerStats = new LinkedHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> sdkCallCounts = new ConcurrentHashMap<>();
+
+    IntegrationMetricsRecorder(Collection<? extends Class<?>> eventClasses) {
+        for (Class<?> eventClass : eventClasses) {
+            listenerStats.put(eventClass, new ListenerStats(getEventName(eventClass)));
+        }
+    }
+
+    void recordListenerInvocation(Class<?> eventClass, long handlingTimeNanos) {
+        ListenerStats stats = listenerStats.get(eventClass);
+        if (stats != null) {
+            stats.record(handlingTimeNanos);
+        }
+    }
+
+    @Override
+    public void onDispatch(String callType) {
+        AtomicLong count = sdkCallCounts.get(callType);
+        if (count == null) {
+            AtomicLong newCount = new AtomicLong();
+            count = sdkCallCounts.putIfAbsent(callType, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    Map<String, IntegrationMetrics.ListenerMetrics> getListenerMetrics() {
+        Map<String, IntegrationMetrics.ListenerMetrics> metrics = new LinkedHashMap<>();
+        for (ListenerStats stats : listenerStats.values()) {
+            IntegrationMetrics.ListenerMetrics listenerMetrics = stats.toListenerMetrics();
+            if (listenerMetrics.getInvocationCount() > 0) {
+                metrics.put(stats.eventName, listenerMetrics);
+            }
+        }
+        return metrics;
+    }
+
+    Map<String, Long> getSdkCallCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : sdkCallCounts.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().get());
+        }
+        return counts;
+    }
+
+    private static String getEventName(Class<?> eventClass) {
+        Class<?> enclosingClass = eventClass.getEnclosingClass();
+        return enclosingClass != null
+                ? enclosingClass.getSimpleName() + "." + eventClass.getSimpleName()
+                : eventClass.getSimpleName();
+    }
+
+    private static class ListenerStats {
+        final String eventName;
+        private long invocationCount;
+        private long totalHandlingTimeNanos;
+        private long maxHandlingTimeNanos;
+
+        ListenerStats(String eventName) {
+            this.eventName = eventName;
+        }
+
+        synchronized void record(long handlingTimeNanos) {
+            invocationCount++;
+            totalHandlingTimeNanos += handlingTimeNanos;
+            if (handlingTimeNanos > maxHandlingTimeNanos) {
+                maxHandlingTimeNanos = handlingTimeNanos;
+            }
+        }
+
+        synchronized IntegrationMetrics.ListenerMetrics toListenerMetrics() {
+            return new IntegrationMetrics.ListenerMetrics(invocationCount, totalHandlingTimeNanos, maxHandlingTimeNanos);
+        }
+    }
+}
@@ -4,4 +4,8 @@ package com.bitmovin.analytics.conviva;
     public static <T> T defaultIfNull(T object, T defaultValue) {
         return object != null ? object : defaultValue;
     }
+
+    public static boolean equals(Object a, Object b) {
+        return a == b || (a != null && a.equals(b));
+    }
 }
@@ -1,5 +1,7 @@
 package com.bitmovin.analytics.conviva;
 
+import androidx.annotation.Nullable;
+
 import com.bitmovin.analytics.conviva.helper.WithEventEmitter;
 import com.conviva.sdk.ConvivaSdkConstants;
 
@@ -8,8 +10,23 @@ import java.util.HashMap;
 public interface PlayerDecorator {
     ConvivaSdkConstants.PlayerState getPlayerState();
 
+    /**
+     * @deprecated Use {@link #getPlaybackVideoQuality()} instead, which does not allocate for known video qualities.
+     */
+    @Deprecated
     HashMap<String, Object[]> getPlaybackVideoData();
 
+    /**
+     * Returns the currently played video quality or <code>null</code> if it is not available.
+     * <p>
+     * The default implementation adapts {@link #getPlaybackVideoData()}, so decorators implemented
+     * before this method was added keep working. Override it to avoid allocating a snapshot per call.
+     */
+    @Nullable
+    default VideoQualitySnapshot getPlaybackVideoQuality() {
+        return VideoQualitySnapshot.fromPlaybackVideoData(getPlaybackVideoData());
+    }
+
     boolean isAd();
 
     String getStreamTitle();
@@ -18,6 +35,16 @@ public interface PlayerDecorator {
 
     String getStreamUrl();
 
+    /**
+     * Returns the metadata of the source following the active source in the playlist, or
+     * <code>null</code> if there is none. The default implementation returns <code>null</code>, so
+     * the metadata of the next source is resolved from the playlist transition instead.
+     */
+    @Nullable
+    default SourceMetadata getUpcomingSourceMetadata() {
+        return null;
+    }
+
     long getPlayHeadTimeMillis();
 
     boolean isLive();
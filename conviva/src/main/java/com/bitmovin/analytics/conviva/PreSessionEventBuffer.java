@@ -0,0 +1,91 @@
+package com.bitmovin.analytics.conviva;
+
+import com.bitmovin.analytics.conviva.helper.IntegrationLogger;
+import com.bitmovin.player.api.event.Event;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers player events which arrive before a session can be initialized with complete content
+ * metadata, e.g. before the asset name is known.
+ * <p>
+ * The buffer is bounded; if it is full the oldest event is dropped. Events are stored with the time
+ * they arrived, events older than the maximum age are dropped when the buffer is taken.
+ */
+class PreSessionEventBuffer {
+    private static final String TAG = "PreSessionEventBuffer";
+
+    private final int capacity;
+    private final long maxAgeNanos;
+    private final ArrayDeque<BufferedEvent> bufferedEvents = new ArrayDeque<>();
+    private long droppedEventCount = 0;
+
+    PreSessionEventBuffer(int capacity, long maxAgeMs) {
+        this.capacity = capacity;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+    }
+
+    boolean isEmpty() {
+        return bufferedEvents.isEmpty();
+    }
+
+    void add(Event event) {
+        add(event, System.nanoTime());
+    }
+
+    void add(Event event, long timestampNanos) {
+        if (bufferedEvents.size() >= capacity) {
+            bufferedEvents.poll();
+            droppedEventCount++;
+        }
+        bufferedEvents.add(new BufferedEvent(event, timestampNanos));
+    }
+
+    /**
+     * Removes all buffered events and returns the ones which did not exceed the maximum age, in the
+     * order they arrived.
+     */
+    List<Event> take() {
+        return take(System.nanoTime());
+    }
+
+    List<Event> take(long nowNanos) {
+        List<Event> events = new ArrayList<>(bufferedEvents.size());
+        BufferedEvent bufferedEvent;
+        while ((bufferedEvent = bufferedEvents.poll()) != null) {
+            if (nowNanos - bufferedEvent.timestampNanos > maxAgeNanos) {
+                droppedEventCount++;
+            } else {
+                events.add(bufferedEvent.event);
+            }
+        }
+        if (droppedEventCount > 0) {
+            IntegrationLogger.d(TAG, "Dropped pre-session events: ", droppedEventCount);
+        }
+        return events;
+    }
+
+    void clear() {
+        bufferedEvents.clear();
+    }
+
+    /**
+     * Number of events dropped because the buffer was full or they exceeded the maximum age.
+     */
+    long getDroppedEventCount() {
+        return droppedEventCount;
+    }
+
+    private static final class BufferedEvent {
+        final Event event;
+        final long timestampNanos;
+
+        BufferedEvent(Event event, long timestampNanos) {
+            this.event = event;
+            this.timestampNanos = timestampNanos;
+        }
+    }
+}
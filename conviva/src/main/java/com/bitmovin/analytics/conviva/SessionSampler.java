@@ -0,0 +1,43 @@
+package com.bitmovin.analytics.conviva;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Decides deterministically whether a session is tracked for a configured sampling rate.
+ * <p>
+ * The decision is derived from a hash of the viewer id and the asset name, so the same viewer is
+ * either always or never tracked for the same asset, independent of the device or app start.
+ */
+class SessionSampler {
+    private final double samplingRate;
+
+    SessionSampler(double samplingRate) {
+        this.samplingRate = samplingRate;
+    }
+
+    boolean isSampled(@Nullable String viewerId, @Nullable String assetName) {
+        if (samplingRate >= 1.0) {
+            return true;
+        }
+        if (samplingRate <= 0.0) {
+            return false;
+        }
+        return toUnitInterval(hash(viewerId, assetName)) < samplingRate;
+    }
+
+    // String.hashCode is specified and therefore stable across processes and devices
+    static int hash(@Nullable String viewerId, @Nullable String assetName) {
+        int hash = 31 * String.valueOf(viewerId).hashCode() + String.valueOf(assetName).hashCode();
+        // murmur3 finalizer, spreads similar ids over the whole range
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    private static double toUnitInterval(int hash) {
+        return (hash & 0xffffffffL) / (double) (1L << 32);
+    }
+}
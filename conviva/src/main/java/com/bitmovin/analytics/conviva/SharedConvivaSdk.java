@@ -0,0 +1,84 @@
+package com.bitmovin.analytics.conviva;
+
+import android.content.Context;
+
+import com.bitmovin.analytics.conviva.helper.IntegrationLogger;
+import com.conviva.sdk.ConvivaAnalytics;
+
+import java.util.Map;
+
+/**
+ * Reference counted initialization of the process wide Conviva SDK.
+ * <p>
+ * The SDK is initialized by the first integration acquiring it. Further integrations, e.g. for
+ * multiple simultaneous players, only build their own video and ad analytics. The SDK is released
+ * once no integration references it anymore.
+ */
+final class SharedConvivaSdk {
+    private static final String TAG = "SharedConvivaSdk";
+
+    private static int referenceCount = 0;
+    private static boolean initialized = false;
+    private static String initializedCustomerKey;
+    private static Map<String, Object> initializedSettings;
+
+    private SharedConvivaSdk() {
+    }
+
+    /**
+     * Initializes the SDK if needed and adds a reference to it.
+     */
+    static synchronized void acquire(Context context, String customerKey, Map<String, Object> settings) {
+        if (!initialized) {
+            ConvivaAnalytics.init(context, customerKey, settings);
+            initialized = true;
+            initializedCustomerKey = customerKey;
+            initializedSettings = settings;
+        } else {
+            if (!ObjectUtils.equals(initializedCustomerKey, customerKey)) {
+                IntegrationLogger.w(TAG, "Conviva SDK is already initialized with a different customer key. Ignoring new customer key.");
+            }
+            if (!ObjectUtils.equals(initializedSettings, settings)) {
+                IntegrationLogger.w(TAG, "Conviva SDK is already initialized with different settings, e.g. gateway url or log level. Ignoring new settings.");
+            }
+        }
+        referenceCount++;
+    }
+
+    /**
+     * Removes a reference. Does not release the SDK itself, see {@link #releaseIfUnreferenced()}.
+     */
+    static synchronized void releaseReference() {
+        if (referenceCount > 0) {
+            referenceCount--;
+        }
+    }
+
+    /**
+     * Releases the SDK if it is initialized and not referenced anymore. The reference count is
+     * checked when this is executed, so an integration acquiring the SDK in the meantime keeps it alive.
+     */
+    static synchronized void releaseIfUnreferenced() {
+        if (initialized && referenceCount == 0) {
+            ConvivaAnalytics.release();
+            initialized = false;
+            initializedCustomerKey = null;
+            initializedSettings = null;
+        }
+    }
+
+    static synchronized int getReferenceCount() {
+        return referenceCount;
+    }
+
+    /**
+     * Forgets all references and the initialization without calling the SDK, so tests do not depend
+     * on the state left by previous tests.
+     */
+    static synchronized void reset() {
+        referenceCount = 0;
+        initialized = false;
+        initializedCustomerKey = null;
+        initializedSettings = null;
+    }
+}
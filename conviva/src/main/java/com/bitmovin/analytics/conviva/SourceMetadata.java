@@ -0,0 +1,62 @@
+package com.bitmovin.analytics.conviva;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bitmovin.player.api.source.Source;
+import com.bitmovin.player.api.source.SourceConfig;
+
+/**
+ * Content metadata of a source which is known before the source becomes active, e.g. of the next
+ * source in a playlist.
+ */
+public final class SourceMetadata {
+    @NonNull
+    private final Source source;
+    @Nullable
+    private final String assetName;
+    @Nullable
+    private final String streamUrl;
+    @Nullable
+    private final String streamType;
+
+    private SourceMetadata(
+            @NonNull Source source,
+            @Nullable String assetName,
+            @Nullable String streamUrl,
+            @Nullable String streamType
+    ) {
+        this.source = source;
+        this.assetName = assetName;
+        this.streamUrl = streamUrl;
+        this.streamType = streamType;
+    }
+
+    @NonNull
+    public static SourceMetadata of(@NonNull Source source) {
+        SourceConfig config = source.getConfig();
+        return new SourceMetadata(source, config.getTitle(), config.getUrl(), config.getType().name());
+    }
+
+    /**
+     * Whether this metadata was resolved for the given source.
+     */
+    public boolean isFor(@Nullable Source source) {
+        return this.source == source;
+    }
+
+    @Nullable
+    public String getAssetName() {
+        return assetName;
+    }
+
+    @Nullable
+    public String getStreamUrl() {
+        return streamUrl;
+    }
+
+    @Nullable
+    public String getStreamType() {
+        return streamType;
+    }
+}
@@ -0,0 +1,171 @@
+package com.bitmovin.analytics.conviva;
+
+import androidx.annotation.Nullable;
+
+import com.bitmovin.player.api.media.video.quality.VideoQuality;
+import com.conviva.sdk.ConvivaSdkConstants;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of a played video quality.
+ * <p>
+ * The metric values are prebuilt in the format expected by the Conviva SDK, so reporting a snapshot
+ * does not allocate.
+ */
+public final class VideoQualitySnapshot {
+    public static final int BITRATE_NO_VALUE = VideoQuality.BITRATE_NO_VALUE;
+    // returned for the resolution and frame rate of adapted video data without these metrics
+    public static final int NO_VALUE = -1;
+
+    private final String id;
+    private final int width;
+    private final int height;
+    private final int peakBitrate;
+    private final int averageBitrate;
+    private final int frameRate;
+
+    private final Object[] resolutionMetric;
+    private final Object[] bitrateMetric;
+    private final Object[] averageBitrateMetric;
+    private final Object[] frameRateMetric;
+    // metrics of an adapted playback video data map, reported as they are instead of the prebuilt ones
+    @Nullable
+    private final Map<String, Object[]> playbackVideoData;
+
+    /**
+     * @param peakBitrate    Peak bitrate in bits per second or {@link #BITRATE_NO_VALUE}.
+     * @param averageBitrate Average bitrate in bits per second or {@link #BITRATE_NO_VALUE}.
+     */
+    public VideoQualitySnapshot(
+            String id,
+            int width,
+            int height,
+            int peakBitrate,
+            int averageBitrate,
+            float frameRate
+    ) {
+        this.id = id;
+        this.width = width;
+        this.height = height;
+        this.peakBitrate = peakBitrate;
+        this.averageBitrate = averageBitrate;
+        this.frameRate = Math.round(frameRate);
+
+        resolutionMetric = new Object[]{width, height};
+        bitrateMetric = peakBitrate != BITRATE_NO_VALUE ? new Object[]{peakBitrate / 1000} : null;
+        averageBitrateMetric = averageBitrate != BITRATE_NO_VALUE ? new Object[]{averageBitrate / 1000} : null;
+        frameRateMetric = new Object[]{this.frameRate};
+        playbackVideoData = null;
+    }
+
+    private VideoQualitySnapshot(Map<String, Object[]> playbackVideoData) {
+        Object[] resolution = playbackVideoData.get(ConvivaSdkConstants.PLAYBACK.RESOLUTION);
+        id = null;
+        width = intValue(resolution, 0, NO_VALUE);
+        height = intValue(resolution, 1, NO_VALUE);
+        peakBitrate = bitrateValue(playbackVideoData.get(ConvivaSdkConstants.PLAYBACK.BITRATE));
+        averageBitrate = bitrateValue(playbackVideoData.get(ConvivaSdkConstants.PLAYBACK.AVG_BITRATE));
+        frameRate = intValue(playbackVideoData.get(ConvivaSdkConstants.PLAYBACK.RENDERED_FRAMERATE), 0, NO_VALUE);
+
+        resolutionMetric = null;
+        bitrateMetric = null;
+        averageBitrateMetric = null;
+        frameRateMetric = null;
+        this.playbackVideoData = playbackVideoData;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getPeakBitrate() {
+        return peakBitrate;
+    }
+
+    public int getAverageBitrate() {
+        return averageBitrate;
+    }
+
+    public int getFrameRate() {
+        return frameRate;
+    }
+
+    /**
+     * Passes all available metrics of this snapshot to the given consumer.
+     * The passed arrays are shared and must not be modified.
+     */
+    public void forEachMetric(MetricConsumer consumer) {
+        if (playbackVideoData != null) {
+            for (Map.Entry<String, Object[]> metric : playbackVideoData.entrySet()) {
+                consumer.accept(metric.getKey(), metric.getValue());
+            }
+            return;
+        }
+        consumer.accept(ConvivaSdkConstants.PLAYBACK.RESOLUTION, resolutionMetric);
+        if (bitrateMetric != null) {
+            consumer.accept(ConvivaSdkConstants.PLAYBACK.BITRATE, bitrateMetric);
+        }
+        if (averageBitrateMetric != null) {
+            consumer.accept(ConvivaSdkConstants.PLAYBACK.AVG_BITRATE, averageBitrateMetric);
+        }
+        consumer.accept(ConvivaSdkConstants.PLAYBACK.RENDERED_FRAMERATE, frameRateMetric);
+    }
+
+    /**
+     * Converts this snapshot into the map format of {@link PlayerDecorator#getPlaybackVideoData()}.
+     */
+    public HashMap<String, Object[]> toPlaybackVideoData() {
+        HashMap<String, Object[]> videoData = new HashMap<>();
+        forEachMetric(videoData::put);
+        return videoData;
+    }
+
+    /**
+     * Wraps the map format of {@link PlayerDecorator#getPlaybackVideoData()} into a snapshot, or
+     * returns <code>null</code> if there is no video data. The snapshot reports exactly the metrics
+     * of the map, including unknown ones. Missing values are returned as {@link #NO_VALUE} or
+     * {@link #BITRATE_NO_VALUE} by the getters.
+     */
+    @Nullable
+    /*package*/ static VideoQualitySnapshot fromPlaybackVideoData(@Nullable Map<String, Object[]> videoData) {
+        if (videoData == null || videoData.isEmpty()) {
+            return null;
+        }
+        return new VideoQualitySnapshot(new HashMap<>(videoData));
+    }
+
+    // the map format reports bitrates in kbps
+    private static int bitrateValue(@Nullable Object[] metric) {
+        int kbps = intValue(metric, 0, BITRATE_NO_VALUE);
+        return kbps != BITRATE_NO_VALUE ? kbps * 1000 : BITRATE_NO_VALUE;
+    }
+
+    private static int intValue(@Nullable Object[] metric, int index, int defaultValue) {
+        if (metric == null || metric.length <= index || !(metric[index] instanceof Number)) {
+            return defaultValue;
+        }
+        return ((Number) metric[index]).intValue();
+    }
+
+    /*package*/ boolean hasValues(int width, int height, int peakBitrate, int averageBitrate, float frameRate) {
+        return this.width == width
+                && this.height == height
+                && this.peakBitrate == peakBitrate
+                && this.averageBitrate == averageBitrate
+                && this.frameRate == Math.round(frameRate);
+    }
+
+    public interface MetricConsumer {
+        void accept(String key, Object[] value);
+    }
+}
@@ -0,0 +1,78 @@
+package com.bitmovin.analytics.conviva.helper;
+
+import android.util.Log;
+
+import androidx.annotation.RestrictTo;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Logging facade of the integration.
+ * <p>
+ * Debug messages are only built and logged if debug logging is enabled via
+ * {@link com.bitmovin.analytics.conviva.ConvivaConfig#setDebugLoggingEnabled(boolean)}. Like the
+ * Conviva SDK log level, the setting applies process wide: debug logging stays enabled as long as at
+ * least one integration enabling it is not released. Info and warning messages are always logged.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class IntegrationLogger {
+    // number of integrations which enabled debug logging and are not released yet
+    private static final AtomicInteger debugEnabledCount = new AtomicInteger();
+
+    private IntegrationLogger() {
+    }
+
+    /**
+     * Enables debug logging until every caller of this method called {@link #disableDebug()}.
+     */
+    public static void enableDebug() {
+        debugEnabledCount.incrementAndGet();
+    }
+
+    /**
+     * Reverts a previous call of {@link #enableDebug()}.
+     */
+    public static void disableDebug() {
+        int count;
+        while ((count = debugEnabledCount.get()) > 0) {
+            if (debugEnabledCount.compareAndSet(count, count - 1)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Use this to guard building debug messages which need more than a single argument.
+     */
+    public static boolean isDebugEnabled() {
+        return debugEnabledCount.get() > 0;
+    }
+
+    static void reset() {
+        debugEnabledCount.set(0);
+    }
+
+    public static void d(String tag, String message) {
+        if (isDebugEnabled()) {
+            Log.d(tag, message);
+        }
+    }
+
+    /**
+     * Logs <code>message</code> followed by <code>arg</code>. The message is only concatenated if debug
+     * logging is enabled.
+     */
+    public static void d(String tag, String message, Object arg) {
+        if (isDebugEnabled()) {
+            Log.d(tag, message + arg);
+        }
+    }
+
+    public static void i(String tag, String message) {
+        Log.i(tag, message);
+    }
+
+    public static void w(String tag, String message) {
+        Log.w(tag, message);
+    }
+}
@@ -0,0 +1,74 @@
+package com.bitmovin.analytics.conviva.helper;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+import com.conviva.sdk.ConvivaSdkConstants;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Last player states reported to the Conviva video and ad analytics of a session.
+ * <p>
+ * Shared by the integration and the server side ad tracking, so a state reported by either of them
+ * suppresses reporting the same state again. Transitions are tracked lock-free and can be reported
+ * from any thread.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class ReportedPlayerStates {
+    private final AtomicReference<ConvivaSdkConstants.PlayerState> contentState = new AtomicReference<>();
+    private final AtomicReference<ConvivaSdkConstants.PlayerState> adState = new AtomicReference<>();
+    private final AtomicLong suppressedTransitionCount = new AtomicLong();
+
+    /**
+     * Records a transition of the content player state.
+     *
+     * @return <code>true</code> if the state must be reported, <code>false</code> if it was already
+     * reported and the transition is suppressed.
+     */
+    public boolean transitionContentState(ConvivaSdkConstants.PlayerState state) {
+        return transition(contentState, state);
+    }
+
+    /**
+     * Records a transition of the ad player state.
+     *
+     * @return <code>true</code> if the state must be reported, <code>false</code> if it was already
+     * reported and the transition is suppressed.
+     */
+    public boolean transitionAdState(ConvivaSdkConstants.PlayerState state) {
+        return transition(adState, state);
+    }
+
+    /**
+     * Sets the content player state reported without a transition, or <code>null</code> if the next
+     * state must be reported in any case.
+     */
+    public void setContentState(@Nullable ConvivaSdkConstants.PlayerState state) {
+        contentState.set(state);
+    }
+
+    /**
+     * Sets the ad player state reported without a transition, e.g. when an ad started, or
+     * <code>null</code> if the next state must be reported in any case, e.g. when an ad ended.
+     */
+    public void setAdState(@Nullable ConvivaSdkConstants.PlayerState state) {
+        adState.set(state);
+    }
+
+    public long getSuppressedTransitionCount() {
+        return suppressedTransitionCount.get();
+    }
+
+    private boolean transition(
+            AtomicReference<ConvivaSdkConstants.PlayerState> lastState,
+            ConvivaSdkConstants.PlayerState state
+    ) {
+        if (lastState.getAndSet(state) != state) {
+            return true;
+        }
+        suppressedTransitionCount.incrementAndGet();
+        return false;
+    }
+}
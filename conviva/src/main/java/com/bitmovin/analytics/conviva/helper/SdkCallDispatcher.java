@@ -0,0 +1,180 @@
+package com.bitmovin.analytics.conviva.helper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes calls into the Conviva SDK.
+ * <p>
+ * Calls are either executed directly on the calling thread or handed over to a single background
+ * thread which executes them in the order they were dispatched. Calls dispatched with
+ * {@link #dispatch(String, Runnable)} are always executed. High frequency metric calls dispatched with
+ * {@link #dispatchDroppable(String, Runnable)} are dropped and counted while the number of pending calls
+ * exceeds the queue capacity. A failing call is logged and does not affect the following calls.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class SdkCallDispatcher {
+    private static final String TAG = "SdkCallDispatcher";
+    private static final String THREAD_NAME = "ConvivaSdkDispatcher";
+
+    @Nullable
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final AtomicInteger pendingCallCount = new AtomicInteger();
+    private final AtomicLong droppedCallCount = new AtomicLong();
+    @Nullable
+    private volatile CallObserver callObserver;
+
+    private SdkCallDispatcher(@Nullable ThreadPoolExecutor executor, int queueCapacity) {
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Creates a dispatcher which executes all calls directly on the calling thread.
+     */
+    public static SdkCallDispatcher direct() {
+        return new SdkCallDispatcher(null, 0);
+    }
+
+    /**
+     * Creates a dispatcher which executes all calls in order on a dedicated background thread.
+     *
+     * @param queueCapacity Maximum number of pending calls before droppable calls are dropped.
+     */
+    public static SdkCallDispatcher background(int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, THREAD_NAME);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        SdkCallDispatcher dispatcher = new SdkCallDispatcher(executor, queueCapacity);
+        executor.setRejectedExecutionHandler((runnable, rejectingExecutor) -> dispatcher.onCallRejected());
+        return dispatcher;
+    }
+
+    /**
+     * Sets an observer which is notified about every dispatched call, or removes it if <code>null</code>.
+     */
+    public void setCallObserver(@Nullable CallObserver callObserver) {
+        this.callObserver = callObserver;
+    }
+
+    public boolean isBackground() {
+        return executor != null;
+    }
+
+    /**
+     * Dispatches a call which is never dropped, e.g. a session or ad lifecycle call.
+     *
+     * @param callType Name of the Conviva SDK method called, reported to the {@link CallObserver}.
+     */
+    public void dispatch(@NonNull String callType, @NonNull Runnable call) {
+        notifyObserver(callType);
+        if (executor == null) {
+            execute(callType, call);
+            return;
+        }
+        enqueue(callType, call);
+    }
+
+    /**
+     * Dispatches a high frequency metric call, e.g. the playhead or the bitrate, which is dropped if
+     * more calls than the queue capacity are pending. The next call of the same metric replaces the
+     * dropped value.
+     *
+     * @param callType Name of the Conviva SDK method called, reported to the {@link CallObserver}.
+     */
+    public void dispatchDroppable(@NonNull String callType, @NonNull Runnable call) {
+        notifyObserver(callType);
+        if (executor == null) {
+            execute(callType, call);
+            return;
+        }
+        if (pendingCallCount.get() >= queueCapacity) {
+            onCallDropped(callType);
+            return;
+        }
+        enqueue(callType, call);
+    }
+
+    /**
+     * Notifies the {@link CallObserver} about a call which the caller executes directly, without
+     * dispatching it. Only allowed if this dispatcher is not {@link #isBackground()}.
+     */
+    public void onDirectCall(@NonNull String callType) {
+        notifyObserver(callType);
+    }
+
+    private void notifyObserver(String callType) {
+        CallObserver observer = callObserver;
+        if (observer != null) {
+            observer.onDispatch(callType);
+        }
+    }
+
+    private void enqueue(String callType, Runnable call) {
+        pendingCallCount.incrementAndGet();
+        executor.execute(() -> {
+            pendingCallCount.decrementAndGet();
+            execute(callType, call);
+        });
+    }
+
+    private static void execute(String callType, Runnable call) {
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            IntegrationLogger.w(TAG, "Conviva SDK call " + callType + " failed: " + e);
+        }
+    }
+
+    /**
+     * Stops accepting new calls. Already dispatched calls are still executed.
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Number of droppable calls which were dropped because too many calls were pending, and of calls
+     * dispatched after the dispatcher was shut down.
+     */
+    public long getDroppedCallCount() {
+        return droppedCallCount.get();
+    }
+
+    private void onCallDropped(String callType) {
+        droppedCallCount.incrementAndGet();
+        IntegrationLogger.d(TAG, "Conviva SDK call queue is full. Dropping call: ", callType);
+    }
+
+    // the queue is unbounded, so calls are only rejected after shutdown
+    private void onCallRejected() {
+        pendingCallCount.decrementAndGet();
+        droppedCallCount.incrementAndGet();
+    }
+
+    public interface CallObserver {
+        /**
+         * Called on the dispatching thread for every dispatched call, including dropped ones.
+         */
+        void onDispatch(String callType);
+    }
+}
@@ -0,0 +1,256 @@
+package com.bitmovin.analytics.conviva.helper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lifecycle state of a Conviva session.
+ * <p>
+ * The state is kept in a single atomic word, so each transition is applied atomically and can be
+ * checked by dispatched calls on the background dispatch thread. Only the transitions are safe this
+ * way, not the integration as a whole, whose content metadata and event buffers are not synchronized.
+ * The word holds the session state, an ad break and paused tracking on top of it, and the bumper and
+ * backgrounded flags. Session state transitions not contained in the transition table and
+ * conflicting ad breaks are rejected and counted as illegal. Transitions to the current state are
+ * rejected without being counted.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class SessionStateMachine {
+    public enum State {
+        IDLE,
+        REQUESTED,
+        PLAYING,
+        CLIENT_AD_BREAK,
+        SSAI_BREAK,
+        PAUSED_TRACKING,
+        ENDED,
+        // the session was not selected for tracking, no Conviva session exists
+        SAMPLED_OUT
+    }
+
+    // bits 0-2: session state, bits 3-5: active ad break, IDLE if none, flags above
+    private static final int SESSION_MASK = 0x7;
+    private static final int AD_BREAK_SHIFT = 3;
+    private static final int AD_BREAK_MASK = 0x7 << AD_BREAK_SHIFT;
+    private static final int PAUSED_TRACKING_FLAG = 1 << 6;
+    private static final int BUMPER_FLAG = 1 << 7;
+    private static final int BACKGROUNDED_FLAG = 1 << 8;
+    private static final int NO_AD_BREAK = State.IDLE.ordinal();
+
+    private static final State[] STATES = State.values();
+    private static final boolean[][] SESSION_TRANSITIONS = createSessionTransitions();
+
+    private final AtomicInteger stateWord = new AtomicInteger(State.IDLE.ordinal());
+    private final AtomicLong illegalTransitionCount = new AtomicLong();
+
+    private static boolean[][] createSessionTransitions() {
+        boolean[][] transitions = new boolean[STATES.length][STATES.length];
+        allow(transitions, State.IDLE, State.REQUESTED);
+        allow(transitions, State.ENDED, State.REQUESTED);
+        allow(transitions, State.REQUESTED, State.PLAYING);
+        allow(transitions, State.REQUESTED, State.ENDED);
+        allow(transitions, State.PLAYING, State.ENDED);
+        allow(transitions, State.IDLE, State.SAMPLED_OUT);
+        allow(transitions, State.ENDED, State.SAMPLED_OUT);
+        allow(transitions, State.SAMPLED_OUT, State.ENDED);
+        return transitions;
+    }
+
+    private static void allow(boolean[][] transitions, State from, State to) {
+        transitions[from.ordinal()][to.ordinal()] = true;
+    }
+
+    /**
+     * Returns the effective state: paused tracking over an active ad break over the session state.
+     */
+    @NonNull
+    public State getState() {
+        int word = stateWord.get();
+        if ((word & PAUSED_TRACKING_FLAG) != 0) {
+            return State.PAUSED_TRACKING;
+        }
+        int adBreak = adBreakOf(word);
+        return adBreak != NO_AD_BREAK ? STATES[adBreak] : STATES[word & SESSION_MASK];
+    }
+
+    @NonNull
+    public State getSessionState() {
+        return STATES[stateWord.get() & SESSION_MASK];
+    }
+
+    public boolean isSessionActive() {
+        State sessionState = getSessionState();
+        return sessionState == State.REQUESTED || sessionState == State.PLAYING;
+    }
+
+    public boolean isSampledOut() {
+        return getSessionState() == State.SAMPLED_OUT;
+    }
+
+    /**
+     * @param adBreak {@link State#CLIENT_AD_BREAK} or {@link State#SSAI_BREAK}
+     */
+    public boolean isInAdBreak(@NonNull State adBreak) {
+        return adBreakOf(stateWord.get()) == adBreak.ordinal();
+    }
+
+    /**
+     * Whether tracking was last paused for a bumper video.
+     */
+    public boolean isBumper() {
+        return (stateWord.get() & BUMPER_FLAG) != 0;
+    }
+
+    public long getIllegalTransitionCount() {
+        return illegalTransitionCount.get();
+    }
+
+    public boolean requestSession() {
+        return transitionSession(State.REQUESTED);
+    }
+
+    /**
+     * Marks the session as not tracked instead of requesting it.
+     */
+    public boolean sampleOut() {
+        return transitionSession(State.SAMPLED_OUT);
+    }
+
+    public boolean startPlaying() {
+        return transitionSession(State.PLAYING);
+    }
+
+    /**
+     * Ends the session together with an active client side ad break and paused tracking.
+     */
+    public boolean endSession() {
+        return transitionSession(State.ENDED);
+    }
+
+    /**
+     * @param adBreak {@link State#CLIENT_AD_BREAK} or {@link State#SSAI_BREAK}
+     * @return <code>true</code> if the ad break was started.
+     */
+    public boolean startAdBreak(@NonNull State adBreak) {
+        checkAdBreak(adBreak);
+        while (true) {
+            int word = stateWord.get();
+            int activeAdBreak = adBreakOf(word);
+            if (activeAdBreak == adBreak.ordinal()) {
+                return false;
+            }
+            if (activeAdBreak != NO_AD_BREAK) {
+                illegalTransitionCount.incrementAndGet();
+                return false;
+            }
+            if (stateWord.compareAndSet(word, withAdBreak(word, adBreak.ordinal()))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param adBreak {@link State#CLIENT_AD_BREAK} or {@link State#SSAI_BREAK}
+     * @return <code>true</code> if the ad break was finished.
+     */
+    public boolean finishAdBreak(@NonNull State adBreak) {
+        checkAdBreak(adBreak);
+        while (true) {
+            int word = stateWord.get();
+            int activeAdBreak = adBreakOf(word);
+            if (activeAdBreak == NO_AD_BREAK) {
+                return false;
+            }
+            if (activeAdBreak != adBreak.ordinal()) {
+                illegalTransitionCount.incrementAndGet();
+                return false;
+            }
+            if (stateWord.compareAndSet(word, withAdBreak(word, NO_AD_BREAK))) {
+                return true;
+            }
+        }
+    }
+
+    public boolean pauseTracking(boolean bumper) {
+        while (true) {
+            int word = stateWord.get();
+            int newWord = (word & ~BUMPER_FLAG) | PAUSED_TRACKING_FLAG | (bumper ? BUMPER_FLAG : 0);
+            if (newWord == word) {
+                return false;
+            }
+            if (stateWord.compareAndSet(word, newWord)) {
+                return true;
+            }
+        }
+    }
+
+    public boolean resumeTracking() {
+        while (true) {
+            int word = stateWord.get();
+            if ((word & PAUSED_TRACKING_FLAG) == 0) {
+                illegalTransitionCount.incrementAndGet();
+                return false;
+            }
+            if (stateWord.compareAndSet(word, word & ~PAUSED_TRACKING_FLAG)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the backgrounded flag changed.
+     */
+    public boolean setBackgrounded(boolean backgrounded) {
+        while (true) {
+            int word = stateWord.get();
+            int newWord = backgrounded ? word | BACKGROUNDED_FLAG : word & ~BACKGROUNDED_FLAG;
+            if (newWord == word) {
+                return false;
+            }
+            if (stateWord.compareAndSet(word, newWord)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean transitionSession(State target) {
+        while (true) {
+            int word = stateWord.get();
+            State current = STATES[word & SESSION_MASK];
+            if (current == target || (current == State.IDLE && target == State.ENDED)) {
+                return false;
+            }
+            if (!SESSION_TRANSITIONS[current.ordinal()][target.ordinal()]) {
+                illegalTransitionCount.incrementAndGet();
+                return false;
+            }
+            int newWord = (word & ~SESSION_MASK) | target.ordinal();
+            if (target == State.ENDED) {
+                newWord &= ~PAUSED_TRACKING_FLAG;
+                if (adBreakOf(newWord) == State.CLIENT_AD_BREAK.ordinal()) {
+                    newWord = withAdBreak(newWord, NO_AD_BREAK);
+                }
+            }
+            if (stateWord.compareAndSet(word, newWord)) {
+                return true;
+            }
+        }
+    }
+
+    private static int adBreakOf(int word) {
+        return (word & AD_BREAK_MASK) >>> AD_BREAK_SHIFT;
+    }
+
+    private static int withAdBreak(int word, int adBreak) {
+        return (word & ~AD_BREAK_MASK) | (adBreak << AD_BREAK_SHIFT);
+    }
+
+    private static void checkAdBreak(State adBreak) {
+        if (adBreak != State.CLIENT_AD_BREAK && adBreak != State.SSAI_BREAK) {
+            throw new IllegalArgumentException("Not an ad break state: " + adBreak);
+        }
+    }
+}
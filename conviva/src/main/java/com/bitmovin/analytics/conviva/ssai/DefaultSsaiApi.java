@@ -1,44 +1,104 @@
 package com.bitmovin.analytics.conviva.ssai;
 
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
 
+import com.bitmovin.analytics.conviva.AdInfoTemplate;
 import com.bitmovin.analytics.conviva.ConvivaAnalyticsIntegration;
 import com.bitmovin.analytics.conviva.PlayerDecorator;
+import com.bitmovin.analytics.conviva.VideoQualitySnapshot;
+import com.bitmovin.analytics.conviva.helper.IntegrationLogger;
+import com.bitmovin.analytics.conviva.helper.ReportedPlayerStates;
+import com.bitmovin.analytics.conviva.helper.SdkCallDispatcher;
+import com.bitmovin.analytics.conviva.helper.SessionStateMachine;
 import com.conviva.sdk.ConvivaAdAnalytics;
 import com.conviva.sdk.ConvivaSdkConstants;
 import com.conviva.sdk.ConvivaVideoAnalytics;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 
 public class DefaultSsaiApi implements SsaiApi {
     private static final String TAG = "DefaultSsaiApi";
-    private final ConvivaVideoAnalytics convivaVideoAnalytics;
-    private final ConvivaAdAnalytics convivaAdAnalytics;
+    private static final AdInfoTemplate SERVER_SIDE_AD_INFO_TEMPLATE = AdInfoTemplate.create(
+            Collections.singletonMap("c3.ad.technology", "Server Side"),
+            ConvivaSdkConstants.STREAM_URL,
+            ConvivaSdkConstants.ASSET_NAME,
+            ConvivaSdkConstants.IS_LIVE,
+            ConvivaSdkConstants.DEFAULT_RESOURCE,
+            ConvivaSdkConstants.ENCODED_FRAMERATE,
+            ConvivaAnalyticsIntegration.STREAM_TYPE,
+            ConvivaAnalyticsIntegration.INTEGRATION_VERSION
+    );
+    // null until set by a deferred initialization on the dispatch thread
+    private volatile ConvivaVideoAnalytics convivaVideoAnalytics;
+    private volatile ConvivaAdAnalytics convivaAdAnalytics;
+    private final SdkCallDispatcher sdkDispatcher;
+    private final SessionStateMachine sessionState;
+    private final ReportedPlayerStates reportedPlayerStates;
     @Nullable
-    private PlayerDecorator player;
+    private volatile PlayerDecorator player;
+    private final VideoQualitySnapshot.MetricConsumer adMetricReporter = this::reportAdMetric;
+    // holds the main content fields of the current session
+    private volatile AdInfoTemplate adInfoTemplate = SERVER_SIDE_AD_INFO_TEMPLATE;
 
     public DefaultSsaiApi(
         ConvivaVideoAnalytics convivaVideoAnalytics,
         ConvivaAdAnalytics convivaAdAnalytics
+    ) {
+        this(convivaVideoAnalytics, convivaAdAnalytics, SdkCallDispatcher.direct(), new SessionStateMachine(), new ReportedPlayerStates());
+    }
+
+    /**
+     * @param sdkDispatcher        Dispatcher of the integration, ordering the Conviva SDK calls.
+     * @param sessionState         State machine of the session, shared with the integration to track
+     *                             server side ad breaks.
+     * @param reportedPlayerStates Last reported player states, shared with the integration so the ad
+     *                             player state reported when an ad starts is not reported again.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public DefaultSsaiApi(
+        ConvivaVideoAnalytics convivaVideoAnalytics,
+        ConvivaAdAnalytics convivaAdAnalytics,
+        SdkCallDispatcher sdkDispatcher,
+        SessionStateMachine sessionState,
+        ReportedPlayerStates reportedPlayerStates
     ) {
         this.convivaVideoAnalytics = convivaVideoAnalytics;
         this.convivaAdAnalytics = convivaAdAnalytics;
+        this.sdkDispatcher = sdkDispatcher;
+        this.sessionState = sessionState;
+        this.reportedPlayerStates = reportedPlayerStates;
     }
 
-    public void setPlayer(@NonNull PlayerDecorator player) {
-        this.player = player;
+    /**
+     * Sets the analytics built by a deferred initialization. Must be called by the first call
+     * dispatched to <code>sdkDispatcher</code>.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public void setAnalytics(
+        @NonNull ConvivaVideoAnalytics convivaVideoAnalytics,
+        @NonNull ConvivaAdAnalytics convivaAdAnalytics
+    ) {
+        this.convivaVideoAnalytics = convivaVideoAnalytics;
+        this.convivaAdAnalytics = convivaAdAnalytics;
     }
 
-    private boolean isAdBreakActive = false;
+    /**
+     * @param player The player to read the ad playback state from, or <code>null</code> if the player
+     *               was detached.
+     */
+    public void setPlayer(@Nullable PlayerDecorator player) {
+        this.player = player;
+    }
 
     @Override
     public boolean isAdBreakActive() {
-        return isAdBreakActive;
+        return sessionState.isInAdBreak(SessionStateMachine.State.SSAI_BREAK);
     }
 
     @Override
@@ -53,123 +113,147 @@ public class DefaultSsaiApi implements SsaiApi {
 
     @Override
     public void reportAdBreakStarted(Map<String, Object> adBreakInfo) {
-        if (isAdBreakActive) {
-            Log.d(TAG, "Server side ad break already active");
+        if (sessionState.isSampledOut()) {
+            IntegrationLogger.d(TAG, "Session not tracked, ignoring ad break");
             return;
         }
-        isAdBreakActive = true;
-        Log.d(TAG, "Server side ad break started");
-        convivaVideoAnalytics.reportAdBreakStarted(ConvivaSdkConstants.AdPlayer.CONTENT, ConvivaSdkConstants.AdType.SERVER_SIDE, adBreakInfo);
+        if (!sessionState.startAdBreak(SessionStateMachine.State.SSAI_BREAK)) {
+            IntegrationLogger.d(TAG, "Ad break already active");
+            return;
+        }
+        IntegrationLogger.d(TAG, "Server side ad break started");
+        dispatch("reportAdBreakStarted", () -> convivaVideoAnalytics.reportAdBreakStarted(ConvivaSdkConstants.AdPlayer.CONTENT, ConvivaSdkConstants.AdType.SERVER_SIDE, adBreakInfo));
     }
 
 
     @Override
     public void reportAdBreakFinished() {
-        if (!isAdBreakActive) {
-            Log.d(TAG, "No server side ad break active");
+        if (!sessionState.finishAdBreak(SessionStateMachine.State.SSAI_BREAK)) {
+            IntegrationLogger.d(TAG, "No server side ad break active");
             return;
         }
-        isAdBreakActive = false;
-        Log.d(TAG, "Server side ad break finished");
-        convivaVideoAnalytics.reportAdBreakEnded();
+        IntegrationLogger.d(TAG, "Server side ad break finished");
+        reportedPlayerStates.setAdState(null);
+        dispatch("reportAdBreakEnded", () -> convivaVideoAnalytics.reportAdBreakEnded());
     }
 
 
     @Override
     public void reportAdStarted(AdInfo adInfo) {
-        if (!isAdBreakActive) {
-            Log.d(TAG, "No server side ad break active");
+        if (!isAdBreakActive()) {
+            IntegrationLogger.d(TAG, "No server side ad break active");
             return;
         }
         if (player == null) {
-            Log.w(TAG, "Player not yet set. Cannot report ad started.");
+            IntegrationLogger.w(TAG, "Player not yet set. Cannot report ad started.");
             return;
         }
-        Log.d(TAG, "Server side ad started");
-        convivaAdAnalytics.reportAdStarted(convertToConvivaAdInfo(adInfo, convivaVideoAnalytics.getMetadataInfo()));
-        reportInitialAdMetrics(player);
+        IntegrationLogger.d(TAG, "Server side ad started");
+        Map<String, Object> adInfoMetadata = toAdInfoMetadata(adInfo);
+        ConvivaSdkConstants.PlayerState playerState = player.getPlayerState();
+        VideoQualitySnapshot videoQuality = player.getPlaybackVideoQuality();
+        // reported with the initial ad metrics, so the integration does not report it again
+        reportedPlayerStates.setAdState(playerState);
+        dispatch("reportAdStarted", () -> {
+            convivaAdAnalytics.reportAdStarted(convertToConvivaAdInfo(adInfoMetadata, convivaVideoAnalytics.getMetadataInfo()));
+            reportInitialAdMetrics(playerState, videoQuality);
+        });
     }
 
-    private void reportInitialAdMetrics(@NonNull PlayerDecorator player) {
-        convivaAdAnalytics.reportAdMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, player.getPlayerState());
-        HashMap<String, Object[]> playbackVideoData = player.getPlaybackVideoData();
-        for (Map.Entry<String, Object[]> entry : playbackVideoData.entrySet()) {
-            convivaAdAnalytics.reportAdMetric(entry.getKey(), entry.getValue());
+    private void reportInitialAdMetrics(
+            ConvivaSdkConstants.PlayerState playerState,
+            @Nullable VideoQualitySnapshot videoQuality
+    ) {
+        convivaAdAnalytics.reportAdMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, playerState);
+        if (videoQuality != null) {
+            videoQuality.forEachMetric(adMetricReporter);
         }
     }
 
+    private void reportAdMetric(String key, Object[] value) {
+        convivaAdAnalytics.reportAdMetric(key, value);
+    }
+
     @Override
     public void reportAdFinished() {
-        if (!isAdBreakActive) {
-            Log.d(TAG, "No ad break active");
+        if (!isAdBreakActive()) {
+            IntegrationLogger.d(TAG, "No ad break active");
             return;
         }
-        Log.d(TAG, "Server side ad finished");
-        convivaAdAnalytics.reportAdEnded();
+        IntegrationLogger.d(TAG, "Server side ad finished");
+        reportedPlayerStates.setAdState(null);
+        dispatch("reportAdEnded", () -> convivaAdAnalytics.reportAdEnded());
     }
 
     @Override
     public void reportAdSkipped() {
-        if (!isAdBreakActive) {
-            Log.d(TAG, "No ad break active");
+        if (!isAdBreakActive()) {
+            IntegrationLogger.d(TAG, "No ad break active");
             return;
         }
-        Log.d(TAG, "Server side ad skipped");
-        convivaAdAnalytics.reportAdSkipped();
+        IntegrationLogger.d(TAG, "Server side ad skipped");
+        reportedPlayerStates.setAdState(null);
+        dispatch("reportAdSkipped", () -> convivaAdAnalytics.reportAdSkipped());
     }
 
     @Override
     public void updateAdInfo(AdInfo adInfo) {
-        if (!isAdBreakActive) {
-            Log.d(TAG, "No ad break active");
+        if (!isAdBreakActive()) {
+            IntegrationLogger.d(TAG, "No ad break active");
             return;
         }
-        Log.d(TAG, "Setting ad info");
+        IntegrationLogger.d(TAG, "Setting ad info");
 
-        convivaAdAnalytics.setAdInfo(convertToConvivaAdInfo(adInfo, convivaVideoAnalytics.getMetadataInfo()));
+        Map<String, Object> adInfoMetadata = toAdInfoMetadata(adInfo);
+        dispatch("setAdInfo", () -> convivaAdAnalytics.setAdInfo(convertToConvivaAdInfo(adInfoMetadata, convivaVideoAnalytics.getMetadataInfo())));
     }
 
-    private static Map<String, Object> convertToConvivaAdInfo(
-            AdInfo adInfo,
-            Map<String, Object> mainContentMetadata
-    ) {
-        HashMap<String, Object> convivaAdInfo = new HashMap<>();
-
-        setDefaults(convivaAdInfo);
-        setFromMainContent(mainContentMetadata, convivaAdInfo);
-        setFromAdInfo(adInfo, convivaAdInfo);
-
-        if (adInfo.getAdditionalMetadata() != null) {
-            convivaAdInfo.putAll(adInfo.getAdditionalMetadata());
+    private void dispatch(String callType, Runnable sdkCall) {
+        if (!sdkDispatcher.isBackground()) {
+            if (isAnalyticsInitialized(callType)) {
+                sdkDispatcher.dispatch(callType, sdkCall);
+            }
+            return;
         }
-
-        return convivaAdInfo;
+        // checked when executed, as a deferred initialization sets the analytics on the dispatch thread
+        sdkDispatcher.dispatch(callType, () -> {
+            if (isAnalyticsInitialized(callType)) {
+                sdkCall.run();
+            }
+        });
     }
 
-    private static void setDefaults(HashMap<String, Object> convivaAdInfo) {
-        convivaAdInfo.put("c3.ad.id", "NA");
-        convivaAdInfo.put("c3.ad.system", "NA");
-        convivaAdInfo.put("c3.ad.mediaFileApiFramework", "NA");
-        convivaAdInfo.put("c3.ad.firstAdSystem", "NA");
-        convivaAdInfo.put("c3.ad.firstAdId", "NA");
-        convivaAdInfo.put("c3.ad.firstCreativeId", "NA");
-        convivaAdInfo.put("c3.ad.technology", "Server Side");
+    private boolean isAnalyticsInitialized(String callType) {
+        if (convivaVideoAnalytics == null || convivaAdAnalytics == null) {
+            IntegrationLogger.w(TAG, "Conviva analytics are not initialized. Skipping call " + callType);
+            return false;
+        }
+        return true;
     }
 
-    private static void setFromMainContent(Map<String, Object> mainContentMetadata, HashMap<String, Object> convivaAdInfo) {
-        maybeCopyFromMainContent(mainContentMetadata, convivaAdInfo, ConvivaSdkConstants.STREAM_URL);
-        maybeCopyFromMainContent(mainContentMetadata, convivaAdInfo, ConvivaSdkConstants.ASSET_NAME);
-        maybeCopyFromMainContent(mainContentMetadata, convivaAdInfo, ConvivaSdkConstants.IS_LIVE);
-        maybeCopyFromMainContent(mainContentMetadata, convivaAdInfo, ConvivaSdkConstants.DEFAULT_RESOURCE);
-        maybeCopyFromMainContent(mainContentMetadata, convivaAdInfo, ConvivaSdkConstants.ENCODED_FRAMERATE);
-        maybeCopyFromMainContent(mainContentMetadata, convivaAdInfo, ConvivaAnalyticsIntegration.STREAM_TYPE);
-        maybeCopyFromMainContent(mainContentMetadata, convivaAdInfo, ConvivaAnalyticsIntegration.INTEGRATION_VERSION);
+    private Map<String, Object> convertToConvivaAdInfo(
+            Map<String, Object> adInfoMetadata,
+            Map<String, Object> mainContentMetadata
+    ) {
+        AdInfoTemplate template = adInfoTemplate.withMainContent(mainContentMetadata);
+        adInfoTemplate = template;
+        return template.newAdInfo(adInfoMetadata);
     }
 
-    private static void maybeCopyFromMainContent(Map<String, Object> mainContentMetadata, HashMap<String, Object> convivaAdInfo, String key) {
-        if (mainContentMetadata.containsKey(key)) {
-            convivaAdInfo.put(key, mainContentMetadata.get(key));
+    /**
+     * Collects the metadata provided by the {@link AdInfo}, which has precedence over the main
+     * content metadata.
+     */
+    private static Map<String, Object> toAdInfoMetadata(AdInfo adInfo) {
+        HashMap<String, Object> adInfoMetadata = new HashMap<>();
+
+        setFromAdInfo(adInfo, adInfoMetadata);
+
+        if (adInfo.getAdditionalMetadata() != null) {
+            adInfoMetadata.putAll(adInfo.getAdditionalMetadata());
         }
+
+        return adInfoMetadata;
     }
 
     private static void setFromAdInfo(AdInfo adInfo, HashMap<String, Object> convivaAdInfo) {
@@ -0,0 +1,63 @@
+package com.bitmovin.analytics.conviva
+
+import com.conviva.sdk.ConvivaSdkConstants
+import org.junit.Test
+import strikt.api.expectThat
+import strikt.assertions.doesNotContainKey
+import strikt.assertions.isEqualTo
+import strikt.assertions.isNotSameInstanceAs
+import strikt.assertions.isSameInstanceAs
+
+class AdInfoTemplateTest {
+    private val template = AdInfoTemplate.create(
+            mapOf("c3.ad.technology" to "Client Side"),
+            ConvivaSdkConstants.IS_LIVE,
+            "streamType",
+    )
+
+    @Test
+    fun `assembles the ad info from the defaults, the fields and the ad fields`() {
+        val adInfo = template.newAdInfo(mapOf("c3.ad.id" to "adId"))
+
+        expectThat(adInfo).isEqualTo(
+                mapOf(
+                        "c3.ad.id" to "adId",
+                        "c3.ad.system" to "NA",
+                        "c3.ad.mediaFileApiFramework" to "NA",
+                        "c3.ad.firstAdSystem" to "NA",
+                        "c3.ad.firstAdId" to "NA",
+                        "c3.ad.firstCreativeId" to "NA",
+                        "c3.ad.technology" to "Client Side",
+                )
+        )
+    }
+
+    @Test
+    fun `copies the main content fields`() {
+        val mainContentMetadata = mapOf<String, Any>(ConvivaSdkConstants.IS_LIVE to true, "other" to "value")
+
+        val adInfo = template.withMainContent(mainContentMetadata).newAdInfo(emptyMap<String, Any>())
+
+        expectThat(adInfo[ConvivaSdkConstants.IS_LIVE]).isEqualTo(true)
+        expectThat(adInfo).doesNotContainKey("other")
+    }
+
+    @Test
+    fun `reuses the template while the main content fields are unchanged`() {
+        val sessionTemplate = template.withMainContent(mapOf(ConvivaSdkConstants.IS_LIVE to true))
+
+        expectThat(sessionTemplate.withMainContent(mapOf(ConvivaSdkConstants.IS_LIVE to true)))
+                .isSameInstanceAs(sessionTemplate)
+        expectThat(sessionTemplate.withMainContent(mapOf(ConvivaSdkConstants.IS_LIVE to false)))
+                .isNotSameInstanceAs(sessionTemplate)
+    }
+
+    @Test
+    fun `drops main content fields which are no longer present`() {
+        val sessionTemplate = template.withMainContent(mapOf("streamType" to "hls"))
+
+        val adInfo = sessionTemplate.withMainContent(emptyMap()).newAdInfo(emptyMap<String, Any>())
+
+        expectThat(adInfo).doesNotContainKey("streamType")
+    }
+}
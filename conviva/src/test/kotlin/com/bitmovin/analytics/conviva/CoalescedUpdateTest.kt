@@ -0,0 +1,81 @@
+package com.bitmovin.analytics.conviva
+
+import android.os.Handler
+import android.os.Looper
+import io.mockk.every
+import io.mockk.just
+import io.mockk.mockk
+import io.mockk.mockkConstructor
+import io.mockk.mockkStatic
+import io.mockk.runs
+import io.mockk.unmockkConstructor
+import io.mockk.unmockkStatic
+import io.mockk.verify
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import strikt.api.expectThat
+import strikt.assertions.hasSize
+import strikt.assertions.isEqualTo
+
+class CoalescedUpdateTest {
+    private var updateCount = 0
+    private val scheduledUpdates = mutableListOf<Runnable>()
+    private val coalescedUpdate = CoalescedUpdate(100) { updateCount++ }
+
+    @Before
+    fun beforeTest() {
+        mockkStatic(Looper::class)
+        every { Looper.getMainLooper() } returns mockk()
+        mockkConstructor(Handler::class)
+        every { anyConstructed<Handler>().postDelayed(any(), any()) } answers {
+            scheduledUpdates.add(firstArg())
+            true
+        }
+        every { anyConstructed<Handler>().removeCallbacks(any()) } just runs
+    }
+
+    @After
+    fun afterTest() {
+        unmockkConstructor(Handler::class)
+        unmockkStatic(Looper::class)
+    }
+
+    @Test
+    fun `runs repeated requests as a single update once the delay elapsed`() {
+        coalescedUpdate.request()
+        coalescedUpdate.request()
+        expectThat(updateCount).isEqualTo(0)
+
+        scheduledUpdates.single().run()
+
+        expectThat(updateCount).isEqualTo(1)
+    }
+
+    @Test
+    fun `schedules a new update after the previous one ran`() {
+        coalescedUpdate.request()
+        scheduledUpdates.single().run()
+
+        coalescedUpdate.request()
+
+        expectThat(scheduledUpdates).hasSize(2)
+    }
+
+    @Test
+    fun `drops a scheduled update on cancel`() {
+        coalescedUpdate.request()
+
+        coalescedUpdate.cancel()
+
+        verify { anyConstructed<Handler>().removeCallbacks(scheduledUpdates.single()) }
+    }
+
+    @Test
+    fun `runs requests immediately without a delay`() {
+        CoalescedUpdate(0) { updateCount++ }.request()
+
+        expectThat(updateCount).isEqualTo(1)
+        expectThat(scheduledUpdates).hasSize(0)
+    }
+}
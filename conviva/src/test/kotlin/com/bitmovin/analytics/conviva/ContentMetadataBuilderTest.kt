@@ -0,0 +1,144 @@
+package com.bitmovin.analytics.conviva
+
+import com.bitmovin.analytics.conviva.helper.mockLogging
+import com.bitmovin.analytics.conviva.helper.unmockLogging
+import com.conviva.sdk.ConvivaSdkConstants
+import org.junit.AfterClass
+import org.junit.BeforeClass
+import org.junit.Test
+import strikt.api.expectThat
+import strikt.api.expectThrows
+import strikt.assertions.isEqualTo
+import strikt.assertions.isNotSameInstanceAs
+import strikt.assertions.isSameInstanceAs
+
+class ContentMetadataBuilderTest {
+    private val contentMetadataBuilder = ContentMetadataBuilder()
+
+    @Test
+    fun `merges custom tags with override values having higher precedence`() {
+        val internalTags = mapOf("streamType" to "hls", "integrationVersion" to "1.0.0")
+        contentMetadataBuilder.setCustom(internalTags)
+        contentMetadataBuilder.setOverrides(MetadataOverrides().apply { custom = mapOf("streamType" to "dash") })
+
+        expectThat(contentMetadataBuilder.custom)
+                .isEqualTo(mapOf("streamType" to "dash", "integrationVersion" to "1.0.0"))
+        expectThat(internalTags).isEqualTo(mapOf("streamType" to "hls", "integrationVersion" to "1.0.0"))
+    }
+
+    @Test
+    fun `reuses the merged custom tags until they are set again`() {
+        contentMetadataBuilder.setCustom(mapOf("streamType" to "hls"))
+        contentMetadataBuilder.setOverrides(MetadataOverrides().apply { custom = mapOf("key" to "value") })
+        val mergedTags = contentMetadataBuilder.custom
+
+        expectThat(contentMetadataBuilder.custom).isSameInstanceAs(mergedTags)
+
+        contentMetadataBuilder.setCustom(mapOf("streamType" to "dash"))
+
+        expectThat(contentMetadataBuilder.custom)
+                .isNotSameInstanceAs(mergedTags)
+                .isEqualTo(mapOf("streamType" to "dash", "key" to "value"))
+    }
+
+    @Test
+    fun `rebuilds the merged additional standard tags when the overrides are set`() {
+        contentMetadataBuilder.setAdditionalStandardTags(mapOf("c3.cm.brand" to "brand"))
+        val mergedTags = contentMetadataBuilder.additionalStandardTags
+
+        contentMetadataBuilder.setOverrides(MetadataOverrides().apply {
+            additionalStandardTags = mapOf("c3.cm.brand" to "other brand")
+        })
+
+        expectThat(contentMetadataBuilder.additionalStandardTags)
+                .isNotSameInstanceAs(mergedTags)
+                .isEqualTo(mapOf("c3.cm.brand" to "other brand"))
+    }
+
+    @Test
+    fun `applies changes of a custom tags map when it is set again`() {
+        val customTags = mutableMapOf("streamType" to "hls")
+        contentMetadataBuilder.setCustom(customTags)
+        expectThat(contentMetadataBuilder.build()["streamType"]).isEqualTo("hls")
+
+        customTags["streamType"] = "dash"
+        expectThat(contentMetadataBuilder.custom).isEqualTo(mapOf("streamType" to "hls"))
+        contentMetadataBuilder.setCustom(customTags)
+
+        expectThat(contentMetadataBuilder.build()["streamType"]).isEqualTo("dash")
+    }
+
+    @Test
+    fun `builds an unmodifiable snapshot`() {
+        contentMetadataBuilder.setAssetName("asset")
+
+        val snapshot = contentMetadataBuilder.build()
+
+        expectThrows<UnsupportedOperationException> { snapshot["key"] = "value" }
+    }
+
+    @Test
+    fun `reuses the snapshot if nothing changed`() {
+        contentMetadataBuilder.setAssetName("asset")
+        contentMetadataBuilder.setStreamUrl("https://example.com/stream.m3u8")
+        val snapshot = contentMetadataBuilder.build()
+
+        contentMetadataBuilder.setStreamUrl("https://example.com/stream.m3u8")
+        contentMetadataBuilder.buildChanges()
+
+        expectThat(contentMetadataBuilder.build()).isSameInstanceAs(snapshot)
+    }
+
+    @Test
+    fun `rebuilds the snapshot after each setter changing an entry`() {
+        contentMetadataBuilder.setAssetName("asset")
+        val setters = listOf<ContentMetadataBuilder.() -> Unit>(
+                { setViewerId("viewer") },
+                { setStreamType(ConvivaSdkConstants.StreamType.LIVE) },
+                { setApplicationName("application") },
+                { setCustom(mapOf("key" to "value")) },
+                { setAdditionalStandardTags(mapOf("c3.cm.brand" to "brand")) },
+                { setDuration(10) },
+                { setEncodedFrameRate(30) },
+                { setDefaultResource("resource") },
+                { setStreamUrl("https://example.com/stream.m3u8") },
+        )
+        var snapshot = contentMetadataBuilder.build()
+
+        setters.forEach { setter ->
+            contentMetadataBuilder.setter()
+            val rebuilt = contentMetadataBuilder.build()
+
+            expectThat(rebuilt).isNotSameInstanceAs(snapshot)
+            snapshot = rebuilt
+        }
+        expectThat(snapshot[ConvivaSdkConstants.STREAM_URL]).isEqualTo("https://example.com/stream.m3u8")
+    }
+
+    @Test
+    fun `rebuilds the snapshot after the overrides are set`() {
+        contentMetadataBuilder.setAssetName("asset")
+        val snapshot = contentMetadataBuilder.build()
+
+        contentMetadataBuilder.setOverrides(MetadataOverrides().apply { viewerId = "viewer" })
+
+        expectThat(contentMetadataBuilder.build())
+                .isNotSameInstanceAs(snapshot)
+                .get { get(ConvivaSdkConstants.VIEWER_ID) }
+                .isEqualTo("viewer")
+    }
+
+    companion object {
+        @JvmStatic
+        @BeforeClass
+        fun beforeClass() {
+            mockLogging()
+        }
+
+        @JvmStatic
+        @AfterClass
+        fun afterClass() {
+            unmockLogging()
+        }
+    }
+}
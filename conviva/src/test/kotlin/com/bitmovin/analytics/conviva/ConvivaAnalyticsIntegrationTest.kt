@@ -1,8 +1,11 @@
 package com.bitmovin.analytics.conviva
 
+import android.app.ActivityManager
 import android.content.Context
 import android.os.Handler
+import android.os.Looper
 import com.bitmovin.analytics.conviva.fixtures.MockPlayer
+import com.bitmovin.analytics.conviva.helper.IntegrationLogger
 import com.bitmovin.analytics.conviva.helper.mockLogging
 import com.bitmovin.analytics.conviva.helper.unmockLogging
 import com.bitmovin.analytics.conviva.ssai.DefaultSsaiApi
@@ -18,18 +21,27 @@ import com.bitmovin.player.api.event.PlayerEvent
 import com.bitmovin.player.api.event.SourceEvent
 import com.bitmovin.player.api.media.Quality
 import com.bitmovin.player.api.media.video.quality.VideoQuality
+import com.bitmovin.player.api.source.Source
+import com.bitmovin.player.api.source.SourceType
 import com.conviva.sdk.ConvivaAdAnalytics
+import com.conviva.sdk.ConvivaAnalytics
+import com.conviva.sdk.ConvivaExperienceAnalytics
 import com.conviva.sdk.ConvivaSdkConstants
 import com.conviva.sdk.ConvivaSdkConstants.AdPosition
 import com.conviva.sdk.ConvivaVideoAnalytics
+import io.mockk.Called
 import io.mockk.clearMocks
 import io.mockk.every
 import io.mockk.just
 import io.mockk.mockk
 import io.mockk.mockkConstructor
+import io.mockk.mockkStatic
 import io.mockk.runs
+import io.mockk.slot
 import io.mockk.unmockkConstructor
+import io.mockk.unmockkStatic
 import io.mockk.verify
+import io.mockk.verifyOrder
 import org.junit.After
 import org.junit.AfterClass
 import org.junit.Before
@@ -37,7 +49,15 @@ import org.junit.BeforeClass
 import org.junit.Test
 import strikt.api.expectThat
 import strikt.assertions.containsExactlyInAnyOrder
+import strikt.assertions.doesNotContain
+import strikt.assertions.hasSize
 import strikt.assertions.isEmpty
+import strikt.assertions.isEqualTo
+import strikt.assertions.isFalse
+import strikt.assertions.isTrue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
 
 class ConvivaAnalyticsIntegrationTest {
     private val mockedPlayer: Player = mockk(relaxed = true)
@@ -73,6 +93,7 @@ class ConvivaAnalyticsIntegrationTest {
     @After
     fun afterTest() {
         clearMocks(mockedPlayer, ssaiApi, videoAnalytics, adAnalytics)
+        SharedConvivaSdk.reset()
     }
 
     @Test
@@ -122,6 +143,36 @@ class ConvivaAnalyticsIntegrationTest {
         verify { adAnalytics.reportAdMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, ConvivaSdkConstants.PlayerState.PLAYING) }
     }
 
+    @Test
+    fun `drops held back state changes superseded by an error and ends the session after the error`() {
+        every { anyConstructed<Handler>().postDelayed(any(), any()) } returns true
+        every { anyConstructed<Handler>().removeCallbacks(any()) } just runs
+        try {
+            player.listeners[PlayerEvent.Playing::class]?.forEach { it(PlayerEvent.Playing(0.0)) }
+
+            player.listeners[PlayerEvent.Paused::class]?.forEach { it(PlayerEvent.Paused(0.0)) }
+            player.listeners[PlayerEvent.StallEnded::class]?.forEach { it(PlayerEvent.StallEnded()) }
+            player.listeners[SourceEvent.Unloaded::class]?.forEach { it(SourceEvent.Unloaded(mockk())) }
+            verify(exactly = 0) { videoAnalytics.reportPlaybackEnded() }
+
+            player.listeners[PlayerEvent.Error::class]?.forEach { it(PlayerEvent.Error(PlayerErrorCode.General, "error")) }
+
+            verify(exactly = 0) {
+                videoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, ConvivaSdkConstants.PlayerState.PAUSED)
+            }
+            verifyOrder {
+                videoAnalytics.reportPlaybackError(any(), ConvivaSdkConstants.ErrorSeverity.FATAL)
+                videoAnalytics.reportPlaybackEnded()
+            }
+            verify(exactly = 1) { videoAnalytics.reportPlaybackEnded() }
+        } finally {
+            every { anyConstructed<Handler>().postDelayed(any(), any()) } answers {
+                firstArg<Runnable>().run()
+                true
+            }
+        }
+    }
+
     @Test
     fun `reports video playback quality changes to ad analytics during an SSAI ad break`() {
         every { ssaiApi.isAdBreakActive } returns true
@@ -209,6 +260,41 @@ class ConvivaAnalyticsIntegrationTest {
         verify(exactly = 0) { videoAnalytics.reportPlaybackMetric(any(), any()) }
     }
 
+    @Test
+    fun `does not report the same player state twice`() {
+        player.listeners[PlayerEvent.Playing::class]?.forEach { it(PlayerEvent.Playing(0.0)) }
+        player.listeners[PlayerEvent.Playing::class]?.forEach { it(PlayerEvent.Playing(0.0)) }
+
+        verify(exactly = 1) {
+            videoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, ConvivaSdkConstants.PlayerState.PLAYING)
+        }
+        expectThat(convivaAnalyticsIntegration.suppressedStateTransitionCount).isEqualTo(1L)
+    }
+
+    @Test
+    fun `reports the player state again after a new session was initialized`() {
+        player.listeners[PlayerEvent.Playing::class]?.forEach { it(PlayerEvent.Playing(0.0)) }
+        convivaAnalyticsIntegration.endSession()
+        convivaAnalyticsIntegration.initializeSession()
+        player.listeners[PlayerEvent.Playing::class]?.forEach { it(PlayerEvent.Playing(0.0)) }
+
+        verify(exactly = 2) {
+            videoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, ConvivaSdkConstants.PlayerState.PLAYING)
+        }
+    }
+
+    @Test
+    fun `reports a session requested while initializing it only once`() {
+        convivaAnalyticsIntegration.endSession()
+        every { videoAnalytics.reportPlaybackRequested(any()) } answers {
+            convivaAnalyticsIntegration.initializeSession()
+        }
+
+        convivaAnalyticsIntegration.initializeSession()
+
+        verify(exactly = 1) { videoAnalytics.reportPlaybackRequested(any()) }
+    }
+
     @Test
     fun `reports CSAI ad position based on last ad break schedule time`() {
         player.listeners[PlayerEvent.AdBreakStarted::class]?.forEach {
@@ -233,12 +319,394 @@ class ConvivaAnalyticsIntegrationTest {
 
     }
 
+    @Test
+    fun `reports client side ads with the session fields of the main content`() {
+        every { videoAnalytics.metadataInfo } returns mapOf(
+                ConvivaSdkConstants.IS_LIVE to false,
+                ConvivaAnalyticsIntegration.STREAM_TYPE to "hls",
+        )
+        player.listeners[PlayerEvent.AdBreakStarted::class]?.forEach { it(createAdBreakStartedEvent(0.0)) }
+        player.listeners[PlayerEvent.AdStarted::class]?.forEach { it(TEST_AD_STARTED_EVENT) }
+
+        verify {
+            adAnalytics.reportAdStarted(match {
+                it["c3.ad.technology"] == "Client Side" &&
+                        it[ConvivaSdkConstants.IS_LIVE] == false &&
+                        it[ConvivaAnalyticsIntegration.STREAM_TYPE] == "hls" &&
+                        it["c3.ad.firstAdId"] == "NA"
+            })
+        }
+    }
+
+    @Test
+    fun `does not update content info if the content metadata did not change`() {
+        player.listeners[PlayerEvent.VideoPlaybackQualityChanged::class]?.forEach { onEvent ->
+            onEvent(PlayerEvent.VideoPlaybackQualityChanged(null, null))
+        }
+
+        verify(exactly = 0) { videoAnalytics.setContentInfo(any()) }
+    }
+
+    @Test
+    fun `updates only changed content metadata entries`() {
+        val metadataOverrides = MetadataOverrides()
+        metadataOverrides.defaultResource = "cdn"
+        convivaAnalyticsIntegration.updateContentMetadata(metadataOverrides)
+
+        verify { videoAnalytics.setContentInfo(mapOf(ConvivaSdkConstants.DEFAULT_RESOURCE to "cdn")) }
+    }
+
+    @Test
+    fun `reports playhead time on time changed events in push mode`() {
+        player.listeners[PlayerEvent.TimeChanged::class]?.forEach { it(PlayerEvent.TimeChanged(1.0)) }
+
+        verify { videoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAY_HEAD_TIME, any()) }
+    }
+
+    @Test
+    fun `reports playhead time from the video analytics callback in pull mode`() {
+        val callback = slot<ConvivaExperienceAnalytics.ICallback>()
+        val pullPlayer = MockPlayer(mockedPlayer)
+        val config = ConvivaConfig().apply {
+            playheadReportingMode = ConvivaConfig.PlayheadReportingMode.PULL
+        }
+        ConvivaAnalyticsIntegration(
+                pullPlayer,
+                "",
+                context,
+                config,
+                videoAnalytics,
+                adAnalytics,
+                ssaiApi,
+        ).initializeSession()
+
+        expectThat(pullPlayer.listeners.keys).doesNotContain(PlayerEvent.TimeChanged::class)
+        verify { videoAnalytics.setCallback(capture(callback)) }
+
+        callback.captured.update()
+        verify { videoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAY_HEAD_TIME, any()) }
+    }
+
+    @Test
+    fun `does not subscribe to mute events if mute event tracking is disabled`() {
+        val otherPlayer = MockPlayer(mockedPlayer)
+        val config = ConvivaConfig().apply { isMuteEventTrackingEnabled = false }
+        ConvivaAnalyticsIntegration(
+                otherPlayer,
+                "",
+                context,
+                config,
+                videoAnalytics,
+                adAnalytics,
+                ssaiApi,
+        )
+
+        expectThat(otherPlayer.listeners.keys)
+                .doesNotContain(PlayerEvent.Muted::class, PlayerEvent.Unmuted::class)
+    }
+
+    @Test
+    fun `tracks with less work per event in the low overhead tracking profile`() {
+        val lowOverheadPlayer = MockPlayer(mockedPlayer)
+        val config = ConvivaConfig().apply { trackingProfile = ConvivaConfig.TrackingProfile.LOW_OVERHEAD }
+        ConvivaAnalyticsIntegration(
+                lowOverheadPlayer,
+                "",
+                context,
+                config,
+                videoAnalytics,
+                adAnalytics,
+                ssaiApi,
+        ).initializeSession()
+
+        lowOverheadPlayer.listeners[PlayerEvent.TimeChanged::class]?.forEach { it(PlayerEvent.TimeChanged(1.0)) }
+        lowOverheadPlayer.listeners[PlayerEvent.TimeChanged::class]?.forEach { it(PlayerEvent.TimeChanged(1.2)) }
+
+        verify(exactly = 1) { videoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAY_HEAD_TIME, any()) }
+        expectThat(lowOverheadPlayer.listeners.keys)
+                .doesNotContain(PlayerEvent.Muted::class, PlayerEvent.Unmuted::class)
+    }
+
+    @Test
+    fun `reports the bitrate immediately and only delays the content metadata update in the low overhead tracking profile`() {
+        every { anyConstructed<Handler>().postDelayed(any(), any()) } returns true
+        try {
+            val lowOverheadPlayer = MockPlayer(mockedPlayer)
+            val config = ConvivaConfig().apply { trackingProfile = ConvivaConfig.TrackingProfile.LOW_OVERHEAD }
+            ConvivaAnalyticsIntegration(
+                    lowOverheadPlayer,
+                    "",
+                    context,
+                    config,
+                    videoAnalytics,
+                    adAnalytics,
+                    ssaiApi,
+            ).initializeSession()
+            val newVideoQuality = VideoQuality(
+                    id = "id",
+                    label = "label",
+                    bitrate = 2000,
+                    averageBitrate = 1000,
+                    peakBitrate = 2000,
+                    codec = "codec",
+                    frameRate = 10.3F,
+                    width = 400,
+                    height = 300,
+            )
+            every { mockedPlayer.playbackVideoData } returns newVideoQuality
+            clearMocks(videoAnalytics, answers = true)
+
+            lowOverheadPlayer.listeners[PlayerEvent.VideoPlaybackQualityChanged::class]?.forEach { onEvent ->
+                onEvent(PlayerEvent.VideoPlaybackQualityChanged(null, newVideoQuality))
+            }
+
+            verify { videoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.BITRATE, 2) }
+            verify(exactly = 0) { videoAnalytics.setContentInfo(any()) }
+        } finally {
+            every { anyConstructed<Handler>().postDelayed(any(), any()) } answers {
+                firstArg<Runnable>().run()
+                true
+            }
+        }
+    }
+
+    @Test
+    fun `uses the low overhead tracking profile on low RAM devices`() {
+        val activityManager: ActivityManager = mockk {
+            every { isLowRamDevice } returns true
+        }
+        val lowRamContext: Context = mockk {
+            every { getSystemService(Context.ACTIVITY_SERVICE) } returns activityManager
+        }
+        val lowRamPlayer = MockPlayer(mockedPlayer)
+        val config = ConvivaConfig().apply { trackingProfile = ConvivaConfig.TrackingProfile.AUTO }
+        ConvivaAnalyticsIntegration(
+                lowRamPlayer,
+                "",
+                lowRamContext,
+                config,
+                videoAnalytics,
+                adAnalytics,
+                ssaiApi,
+        )
+
+        expectThat(lowRamPlayer.listeners.keys)
+                .doesNotContain(PlayerEvent.Muted::class, PlayerEvent.Unmuted::class)
+    }
+
+    @Test
+    fun `collects integration metrics if enabled`() {
+        val metricsPlayer = MockPlayer(mockedPlayer)
+        val config = ConvivaConfig().apply { isIntegrationMetricsEnabled = true }
+        val integration = ConvivaAnalyticsIntegration(
+                metricsPlayer,
+                "",
+                context,
+                config,
+                videoAnalytics,
+                adAnalytics,
+                ssaiApi,
+        )
+        integration.initializeSession()
+
+        metricsPlayer.listeners[PlayerEvent.Playing::class]?.forEach { it(PlayerEvent.Playing(0.0)) }
+        metricsPlayer.listeners[PlayerEvent.Playing::class]?.forEach { it(PlayerEvent.Playing(0.0)) }
+
+        val metrics = integration.integrationMetrics
+        expectThat(metrics.listenerMetrics["PlayerEvent.Playing"]?.invocationCount).isEqualTo(2L)
+        expectThat(metrics.sdkCallCounts["reportPlaybackRequested"]).isEqualTo(1L)
+        expectThat(metrics.suppressedStateTransitionCount).isEqualTo(1L)
+    }
+
+    @Test
+    fun `does not collect listener metrics if disabled`() {
+        player.listeners[PlayerEvent.Playing::class]?.forEach { it(PlayerEvent.Playing(0.0)) }
+
+        expectThat(convivaAnalyticsIntegration.integrationMetrics.listenerMetrics).isEmpty()
+        expectThat(convivaAnalyticsIntegration.integrationMetrics.sdkCallCounts).isEmpty()
+    }
+
+    @Test
+    fun `routes all subscribed events through a single listener`() {
+        expectThat(player.listeners.values.flatten().distinct()).hasSize(1)
+    }
+
+    @Test
+    fun `starts a new session with the metadata of the next source on a playlist transition`() {
+        val from = createSource("first", "https://example.com/first.m3u8")
+        val to = createSource("second", "https://example.com/second.m3u8")
+
+        player.listeners[PlayerEvent.PlaylistTransition::class]?.forEach { it(PlayerEvent.PlaylistTransition(from, to)) }
+
+        verifyOrder {
+            videoAnalytics.reportPlaybackEnded()
+            videoAnalytics.reportPlaybackRequested(match {
+                it[ConvivaSdkConstants.ASSET_NAME] == "second" &&
+                        it[ConvivaSdkConstants.STREAM_URL] == "https://example.com/second.m3u8"
+            })
+        }
+        expectThat(convivaAnalyticsIntegration.sessionActive).isTrue()
+    }
+
+    @Test
+    fun `does not report the asset name override of the previous source after a playlist transition`() {
+        convivaAnalyticsIntegration.updateContentMetadata(MetadataOverrides().apply {
+            assetName = "first override"
+            viewerId = "viewer"
+        })
+        clearMocks(videoAnalytics, answers = true)
+        val from = createSource("first", "https://example.com/first.m3u8")
+        val to = createSource("second", "https://example.com/second.m3u8")
+
+        player.listeners[PlayerEvent.PlaylistTransition::class]?.forEach { it(PlayerEvent.PlaylistTransition(from, to)) }
+
+        verify {
+            videoAnalytics.reportPlaybackRequested(match {
+                it[ConvivaSdkConstants.ASSET_NAME] == "second" &&
+                        it[ConvivaSdkConstants.VIEWER_ID] == "viewer"
+            })
+        }
+        verify(exactly = 0) {
+            videoAnalytics.setContentInfo(match { it[ConvivaSdkConstants.ASSET_NAME] == "first override" })
+            videoAnalytics.reportPlaybackRequested(match { it[ConvivaSdkConstants.ASSET_NAME] == "first override" })
+        }
+    }
+
+    @Test
+    fun `buffers events before the session until the asset name is available`() {
+        every { mockedPlayer.source } returns null
+        val bufferingPlayer = MockPlayer(mockedPlayer)
+        val config = ConvivaConfig().apply { preSessionEventBufferCapacity = 10 }
+        val integration = ConvivaAnalyticsIntegration(
+                bufferingPlayer,
+                "",
+                context,
+                config,
+                videoAnalytics,
+                adAnalytics,
+                ssaiApi,
+        )
+
+        bufferingPlayer.listeners[PlayerEvent.Play::class]?.forEach { it(PlayerEvent.Play(0.0)) }
+        bufferingPlayer.listeners[PlayerEvent.Playing::class]?.forEach { it(PlayerEvent.Playing(0.0)) }
+        verify(exactly = 0) { videoAnalytics.reportPlaybackRequested(any()) }
+
+        integration.updateContentMetadata(MetadataOverrides().apply { assetName = "asset" })
+
+        verifyOrder {
+            videoAnalytics.reportPlaybackRequested(match { it[ConvivaSdkConstants.ASSET_NAME] == "asset" })
+            videoAnalytics.reportPlaybackMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, ConvivaSdkConstants.PlayerState.PLAYING)
+        }
+    }
+
+    @Test
+    fun `does not track sessions which are not sampled`() {
+        val samplingPlayer = MockPlayer(mockedPlayer)
+        val config = ConvivaConfig().apply { sessionSamplingRate = 0.0 }
+        val integration = ConvivaAnalyticsIntegration(
+                samplingPlayer,
+                "",
+                context,
+                config,
+                videoAnalytics,
+                adAnalytics,
+                ssaiApi,
+        )
+        clearMocks(videoAnalytics)
+
+        samplingPlayer.listeners[PlayerEvent.Play::class]?.forEach { it(PlayerEvent.Play(0.0)) }
+        samplingPlayer.listeners[PlayerEvent.Playing::class]?.forEach { it(PlayerEvent.Playing(0.0)) }
+
+        verify { videoAnalytics wasNot Called }
+        expectThat(samplingPlayer.listeners[PlayerEvent.TimeChanged::class].orEmpty()).isEmpty()
+
+        samplingPlayer.listeners[PlayerEvent.PlaybackFinished::class]?.forEach { it(PlayerEvent.PlaybackFinished()) }
+
+        verify { videoAnalytics wasNot Called }
+        expectThat(samplingPlayer.listeners[PlayerEvent.TimeChanged::class].orEmpty()).hasSize(1)
+        expectThat(integration.sessionActive).isFalse()
+    }
+
+    @Test
+    fun `keeps debug logging enabled until every integration enabling it is released`() {
+        val config = ConvivaConfig().apply { isDebugLoggingEnabled = true }
+        val first = ConvivaAnalyticsIntegration(null, "", context, config, videoAnalytics, adAnalytics, ssaiApi)
+        val second = ConvivaAnalyticsIntegration(null, "", context, config, videoAnalytics, adAnalytics, ssaiApi)
+        ConvivaAnalyticsIntegration(null, "", context, ConvivaConfig(), videoAnalytics, adAnalytics, ssaiApi)
+
+        first.release(false)
+        expectThat(IntegrationLogger.isDebugEnabled()).isTrue()
+
+        second.release(false)
+        expectThat(IntegrationLogger.isDebugEnabled()).isFalse()
+    }
+
+    @Test
+    fun `initializes the Conviva SDK on the dispatch thread if deferred`() {
+        mockkStatic(ConvivaAnalytics::class)
+        try {
+            val initializingThread = AtomicReference<String>()
+            every { ConvivaAnalytics.init(any<Context>(), any<String>(), any<Map<String, Any>>()) } answers {
+                initializingThread.set(Thread.currentThread().name)
+            }
+            every { ConvivaAnalytics.release() } just runs
+            every { ConvivaAnalytics.buildVideoAnalytics(any()) } returns videoAnalytics
+            every { ConvivaAnalytics.buildAdAnalytics(any(), any()) } returns adAnalytics
+            val config = ConvivaConfig().apply { isDeferredInitializationEnabled = true }
+
+            val integration = ConvivaAnalyticsIntegration(MockPlayer(mockedPlayer), "", context, config)
+
+            verify(timeout = 1000) { adAnalytics.setCallback(any()) }
+            expectThat(initializingThread.get()).isEqualTo("ConvivaSdkDispatcher")
+
+            integration.release()
+            verify(timeout = 1000) { ConvivaAnalytics.release() }
+        } finally {
+            unmockkStatic(ConvivaAnalytics::class)
+        }
+    }
+
+    @Test
+    fun `reports server side ad breaks started before the deferred initialization ran`() {
+        mockkStatic(ConvivaAnalytics::class)
+        try {
+            val initializationBlocked = CountDownLatch(1)
+            every { ConvivaAnalytics.init(any<Context>(), any<String>(), any<Map<String, Any>>()) } answers {
+                initializationBlocked.await(5, TimeUnit.SECONDS)
+            }
+            every { ConvivaAnalytics.release() } just runs
+            every { ConvivaAnalytics.buildVideoAnalytics(any()) } returns videoAnalytics
+            every { ConvivaAnalytics.buildAdAnalytics(any(), any()) } returns adAnalytics
+            val config = ConvivaConfig().apply { isDeferredInitializationEnabled = true }
+            val integration = ConvivaAnalyticsIntegration(MockPlayer(mockedPlayer), "", context, config)
+
+            integration.initializeSession()
+            integration.ssai.reportAdBreakStarted()
+            integration.ssai.reportAdBreakFinished()
+            initializationBlocked.countDown()
+
+            verify(timeout = 1000) { videoAnalytics.reportAdBreakEnded() }
+            verifyOrder {
+                videoAnalytics.reportPlaybackRequested(any())
+                videoAnalytics.reportAdBreakStarted(ConvivaSdkConstants.AdPlayer.CONTENT, ConvivaSdkConstants.AdType.SERVER_SIDE, any())
+                videoAnalytics.reportAdBreakEnded()
+            }
+            integration.release()
+        } finally {
+            unmockkStatic(ConvivaAnalytics::class)
+        }
+    }
+
     companion object {
         @JvmStatic
         @BeforeClass
         fun beforeClass() {
             mockLogging()
 
+            mockkStatic(Looper::class)
+            val mainLooper: Looper = mockk()
+            every { Looper.getMainLooper() } returns mainLooper
+            every { Looper.myLooper() } returns mainLooper
             mockkConstructor(Handler::class)
             every { anyConstructed<Handler>().postDelayed(any(), any()) } answers {
                 firstArg<Runnable>().run()
@@ -251,6 +719,7 @@ class ConvivaAnalyticsIntegrationTest {
         fun afterClass() {
             unmockLogging()
             unmockkConstructor(Handler::class)
+            unmockkStatic(Looper::class)
         }
     }
 }
@@ -266,6 +735,7 @@ private val attachedPlayerEvents = listOf(
         PlayerEvent.StallEnded::class,
         PlayerEvent.StallStarted::class,
         PlayerEvent.PlaybackFinished::class,
+        PlayerEvent.PlaylistTransition::class,
         PlayerEvent.Seek::class,
         PlayerEvent.Seeked::class,
         PlayerEvent.TimeShift::class,
@@ -283,6 +753,14 @@ private val attachedPlayerEvents = listOf(
         SourceEvent.Warning::class,
 )
 
+private fun createSource(title: String, url: String): Source = mockk {
+    every { config } returns mockk {
+        every { this@mockk.title } returns title
+        every { this@mockk.url } returns url
+        every { type } returns SourceType.Hls
+    }
+}
+
 private val TEST_AD_STARTED_EVENT = PlayerEvent.AdStarted(
         clientType = AdSourceType.Ima,
         clickThroughUrl = "clickThroughUrl",
@@ -0,0 +1,122 @@
+package com.bitmovin.analytics.conviva
+
+import android.content.Context
+import com.bitmovin.analytics.conviva.fixtures.MockPlayer
+import com.bitmovin.analytics.conviva.helper.mockLogging
+import com.bitmovin.analytics.conviva.helper.unmockLogging
+import com.conviva.sdk.ConvivaAdAnalytics
+import com.conviva.sdk.ConvivaAnalytics
+import com.conviva.sdk.ConvivaSdkConstants
+import com.conviva.sdk.ConvivaVideoAnalytics
+import io.mockk.every
+import io.mockk.just
+import io.mockk.mockk
+import io.mockk.mockkStatic
+import io.mockk.runs
+import io.mockk.unmockkStatic
+import io.mockk.verify
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import strikt.api.expectThat
+import strikt.assertions.isEqualTo
+import strikt.assertions.isNotNull
+import strikt.assertions.isSameInstanceAs
+
+class ConvivaAnalyticsPoolTest {
+    private val context: Context = mockk()
+    private lateinit var pool: ConvivaAnalyticsPool
+
+    @Before
+    fun beforeTest() {
+        mockLogging()
+        mockkStatic(ConvivaAnalytics::class)
+        every { ConvivaAnalytics.init(any<Context>(), any<String>(), any<Map<String, Any>>()) } just runs
+        every { ConvivaAnalytics.release() } just runs
+        every { ConvivaAnalytics.buildVideoAnalytics(any()) } answers { mockk<ConvivaVideoAnalytics>(relaxed = true) }
+        every { ConvivaAnalytics.buildAdAnalytics(any(), any()) } answers { mockk<ConvivaAdAnalytics>(relaxed = true) }
+        pool = ConvivaAnalyticsPool(context, "key", ConvivaConfig(), 2)
+    }
+
+    @After
+    fun afterTest() {
+        pool.release()
+        SharedConvivaSdk.reset()
+        unmockkStatic(ConvivaAnalytics::class)
+        unmockLogging()
+    }
+
+    @Test
+    fun `prepares analytics with player info up to the capacity`() {
+        pool.prewarm()
+
+        expectThat(pool.availableCount).isEqualTo(2)
+        val pooledAnalytics = pool.acquire()
+        verify { pooledAnalytics.videoAnalytics.setPlayerInfo(ConvivaAnalyticsIntegration.PLAYER_INFO) }
+        verify { pooledAnalytics.adAnalytics.setAdPlayerInfo(ConvivaAnalyticsIntegration.PLAYER_INFO) }
+        expectThat(pool.availableCount).isEqualTo(1)
+    }
+
+    @Test
+    fun `reuses recycled analytics`() {
+        val pooledAnalytics = pool.acquire()
+
+        pool.recycle(pooledAnalytics)
+
+        verify { pooledAnalytics.videoAnalytics.setCallback(null) }
+        expectThat(pool.acquire()).isSameInstanceAs(pooledAnalytics)
+        verify(exactly = 0) { pooledAnalytics.videoAnalytics.release() }
+    }
+
+    @Test
+    fun `resets recycled analytics before reusing them`() {
+        val pooledAnalytics = pool.acquire()
+
+        pool.recycle(pooledAnalytics)
+
+        expectThat(pool.acquire()).isSameInstanceAs(pooledAnalytics)
+        verify {
+            pooledAnalytics.videoAnalytics.setCallback(null)
+            pooledAnalytics.adAnalytics.setCallback(null)
+            pooledAnalytics.videoAnalytics.reportPlaybackMetric(
+                    ConvivaSdkConstants.PLAYBACK.PLAYER_STATE,
+                    ConvivaSdkConstants.PlayerState.STOPPED,
+            )
+        }
+    }
+
+    @Test
+    fun `releases recycled analytics exceeding the capacity`() {
+        pool.prewarm()
+        val pooledAnalytics = pool.acquire()
+        pool.prewarm()
+
+        pool.recycle(pooledAnalytics)
+
+        verify { pooledAnalytics.videoAnalytics.release() }
+        verify { pooledAnalytics.adAnalytics.release() }
+    }
+
+    @Test
+    fun `does not release the SDK when releasing an integration using the pool`() {
+        val integration = ConvivaAnalyticsIntegration(MockPlayer(mockk(relaxed = true)), "key", context, ConvivaConfig(), pool)
+
+        integration.release()
+
+        verify(exactly = 0) { ConvivaAnalytics.release() }
+        expectThat(pool.acquire().videoAnalytics).isNotNull()
+    }
+
+    @Test
+    fun `releases pooled analytics and the SDK on release`() {
+        pool.prewarm()
+        val pooledAnalytics = pool.acquire()
+        pool.recycle(pooledAnalytics)
+
+        pool.release()
+
+        verify { pooledAnalytics.videoAnalytics.release() }
+        verify { ConvivaAnalytics.release() }
+        expectThat(pool.availableCount).isEqualTo(0)
+    }
+}
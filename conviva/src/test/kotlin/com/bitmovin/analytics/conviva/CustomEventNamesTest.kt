@@ -0,0 +1,23 @@
+package com.bitmovin.analytics.conviva
+
+import com.bitmovin.player.api.deficiency.PlayerErrorCode
+import com.bitmovin.player.api.event.PlayerEvent
+import org.junit.Test
+import strikt.api.expectThat
+import strikt.assertions.isEqualTo
+import strikt.assertions.isSameInstanceAs
+
+class CustomEventNamesTest {
+    @Test
+    fun `resolves the name of reported events`() {
+        expectThat(CustomEventNames.of(PlayerEvent.Error(PlayerErrorCode.General, "error"))).isEqualTo("onError")
+    }
+
+    @Test
+    fun `resolves the name of other events once`() {
+        val name = CustomEventNames.of(PlayerEvent.Playing(0.0))
+
+        expectThat(name).isEqualTo("onPlaying")
+        expectThat(CustomEventNames.of(PlayerEvent.Playing(1.0))).isSameInstanceAs(name)
+    }
+}
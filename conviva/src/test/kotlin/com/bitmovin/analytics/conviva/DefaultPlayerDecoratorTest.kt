@@ -0,0 +1,153 @@
+package com.bitmovin.analytics.conviva
+
+import com.bitmovin.player.api.Player
+import com.bitmovin.player.api.media.Quality
+import com.bitmovin.player.api.media.video.quality.VideoQuality
+import com.bitmovin.player.api.source.Source
+import com.bitmovin.player.api.source.SourceType
+import com.conviva.sdk.ConvivaSdkConstants
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.Test
+import strikt.api.expectThat
+import strikt.assertions.containsKeys
+import strikt.assertions.doesNotContainKey
+import strikt.assertions.isEqualTo
+import strikt.assertions.isNotSameInstanceAs
+import strikt.assertions.isNull
+import strikt.assertions.isSameInstanceAs
+
+class DefaultPlayerDecoratorTest {
+    private val player: Player = mockk(relaxed = true)
+    private val playerDecorator = DefaultPlayerDecorator(player)
+
+    @Test
+    fun `reuses the snapshot when switching back to a known video quality`() {
+        every { player.playbackVideoData } returns createVideoQuality("1080p", 1920, 1080)
+        val first = playerDecorator.playbackVideoQuality
+
+        every { player.playbackVideoData } returns createVideoQuality("720p", 1280, 720)
+        playerDecorator.playbackVideoQuality
+
+        every { player.playbackVideoData } returns createVideoQuality("1080p", 1920, 1080)
+        expectThat(playerDecorator.playbackVideoQuality).isSameInstanceAs(first)
+    }
+
+    @Test
+    fun `rebuilds the snapshot if a known video quality id has different values`() {
+        every { player.playbackVideoData } returns createVideoQuality("id", 1920, 1080)
+        val first = playerDecorator.playbackVideoQuality
+
+        every { player.playbackVideoData } returns createVideoQuality("id", 1280, 720)
+        expectThat(playerDecorator.playbackVideoQuality).isNotSameInstanceAs(first)
+    }
+
+    @Test
+    fun `returns no snapshot without playback video data`() {
+        every { player.playbackVideoData } returns null
+
+        expectThat(playerDecorator.playbackVideoQuality).isNull()
+    }
+
+    @Test
+    fun `adapts the legacy playback video data of decorators not providing a snapshot`() {
+        val legacyDecorator = mockk<PlayerDecorator>()
+        @Suppress("DEPRECATION")
+        every { legacyDecorator.playbackVideoData } returns hashMapOf<String, Array<Any>>(
+                ConvivaSdkConstants.PLAYBACK.BITRATE to arrayOf(2),
+                ConvivaSdkConstants.PLAYBACK.RESOLUTION to arrayOf(400, 300),
+                ConvivaSdkConstants.PLAYBACK.RENDERED_FRAMERATE to arrayOf(30),
+        )
+        every { legacyDecorator.playbackVideoQuality } answers { callOriginal() }
+
+        val videoQuality = legacyDecorator.playbackVideoQuality!!
+
+        expectThat(videoQuality.width).isEqualTo(400)
+        expectThat(videoQuality.height).isEqualTo(300)
+        expectThat(videoQuality.peakBitrate).isEqualTo(2000)
+        expectThat(videoQuality.averageBitrate).isEqualTo(VideoQualitySnapshot.BITRATE_NO_VALUE)
+        expectThat(videoQuality.frameRate).isEqualTo(30)
+    }
+
+    @Test
+    fun `reports only the metrics of the adapted legacy playback video data`() {
+        val legacyDecorator = mockk<PlayerDecorator>()
+        @Suppress("DEPRECATION")
+        every { legacyDecorator.playbackVideoData } returns hashMapOf<String, Array<Any>>(
+                ConvivaSdkConstants.PLAYBACK.BITRATE to arrayOf(2),
+                "customMetric" to arrayOf(1),
+        )
+        every { legacyDecorator.playbackVideoQuality } answers { callOriginal() }
+
+        val videoQuality = legacyDecorator.playbackVideoQuality!!
+
+        expectThat(videoQuality.width).isEqualTo(VideoQualitySnapshot.NO_VALUE)
+        expectThat(videoQuality.frameRate).isEqualTo(VideoQualitySnapshot.NO_VALUE)
+        expectThat(videoQuality.toPlaybackVideoData())
+                .containsKeys(ConvivaSdkConstants.PLAYBACK.BITRATE, "customMetric")
+                .doesNotContainKey(ConvivaSdkConstants.PLAYBACK.RESOLUTION)
+                .doesNotContainKey(ConvivaSdkConstants.PLAYBACK.RENDERED_FRAMERATE)
+    }
+
+    @Test
+    fun `converts the snapshot into the legacy playback video data map`() {
+        every { player.playbackVideoData } returns createVideoQuality(
+                "id",
+                400,
+                300,
+                averageBitrate = Quality.BITRATE_NO_VALUE,
+        )
+
+        @Suppress("DEPRECATION")
+        val playbackVideoData = playerDecorator.playbackVideoData
+
+        expectThat(playbackVideoData) {
+            containsKeys(
+                    ConvivaSdkConstants.PLAYBACK.RESOLUTION,
+                    ConvivaSdkConstants.PLAYBACK.BITRATE,
+                    ConvivaSdkConstants.PLAYBACK.RENDERED_FRAMERATE,
+            )
+            doesNotContainKey(ConvivaSdkConstants.PLAYBACK.AVG_BITRATE)
+        }
+        expectThat(playbackVideoData[ConvivaSdkConstants.PLAYBACK.RESOLUTION]!!.toList()).isEqualTo(listOf<Any>(400, 300))
+        expectThat(playbackVideoData[ConvivaSdkConstants.PLAYBACK.BITRATE]!!.toList()).isEqualTo(listOf<Any>(2))
+    }
+
+    @Test
+    fun `resolves the metadata of the next source in the playlist`() {
+        val first = createSource("first")
+        val second = createSource("second")
+        every { player.source } returns first
+        every { player.playlist.sources } returns listOf(first, second)
+
+        expectThat(playerDecorator.upcomingSourceMetadata?.assetName).isEqualTo("second")
+
+        every { player.source } returns second
+        expectThat(playerDecorator.upcomingSourceMetadata).isNull()
+    }
+}
+
+private fun createSource(title: String): Source = mockk {
+    every { config } returns mockk {
+        every { this@mockk.title } returns title
+        every { url } returns "https://example.com/$title.m3u8"
+        every { type } returns SourceType.Hls
+    }
+}
+
+private fun createVideoQuality(
+        id: String,
+        width: Int,
+        height: Int,
+        averageBitrate: Int = 1000,
+) = VideoQuality(
+        id = id,
+        label = id,
+        bitrate = 2000,
+        averageBitrate = averageBitrate,
+        peakBitrate = 2000,
+        codec = "codec",
+        frameRate = 25F,
+        width = width,
+        height = height,
+)
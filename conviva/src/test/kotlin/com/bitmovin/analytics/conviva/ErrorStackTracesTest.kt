@@ -0,0 +1,61 @@
+package com.bitmovin.analytics.conviva
+
+import org.junit.Test
+import strikt.api.expectThat
+import strikt.assertions.contains
+import strikt.assertions.containsKey
+import strikt.assertions.doesNotContainKey
+import strikt.assertions.hasLength
+import strikt.assertions.isEqualTo
+import strikt.assertions.isLessThanOrEqualTo
+
+class ErrorStackTracesTest {
+    private val errorStackTraces = ErrorStackTraces(3, 4096)
+
+    @Test
+    fun `serializes at most the configured number of frames including causes`() {
+        val error = RuntimeException("outer", IllegalStateException("inner"))
+
+        val stackTrace = errorStackTraces.serialize(error)
+
+        expectThat(stackTrace).contains("java.lang.RuntimeException: outer")
+        expectThat(stackTrace.lines().count { it.startsWith("\tat ") }).isLessThanOrEqualTo(3)
+    }
+
+    @Test
+    fun `cuts the stack trace at the configured length`() {
+        val stackTrace = ErrorStackTraces(3, 20).serialize("x".repeat(100))
+
+        expectThat(stackTrace).hasLength(20)
+    }
+
+    @Test
+    fun `reports a repeated stack trace only by its id`() {
+        val first = errorStackTraces.toAttributes("error data")
+        val repeated = errorStackTraces.toAttributes("error data")
+
+        expectThat(first).containsKey(ErrorStackTraces.STACK_TRACE_ATTRIBUTE)
+        expectThat(repeated).doesNotContainKey(ErrorStackTraces.STACK_TRACE_ATTRIBUTE)
+        expectThat(repeated[ErrorStackTraces.STACK_TRACE_ID_ATTRIBUTE])
+                .isEqualTo(first[ErrorStackTraces.STACK_TRACE_ID_ATTRIBUTE])
+    }
+
+    @Test
+    fun `reports distinct stack traces with colliding ids in full`() {
+        expectThat("Aa".hashCode()).isEqualTo("BB".hashCode())
+        errorStackTraces.toAttributes("Aa")
+
+        val colliding = errorStackTraces.toAttributes("BB")
+
+        expectThat(colliding[ErrorStackTraces.STACK_TRACE_ATTRIBUTE]).isEqualTo("BB")
+    }
+
+    @Test
+    fun `reports stack traces again after a reset`() {
+        errorStackTraces.toAttributes("error data")
+
+        errorStackTraces.reset()
+
+        expectThat(errorStackTraces.toAttributes("error data")).containsKey(ErrorStackTraces.STACK_TRACE_ATTRIBUTE)
+    }
+}
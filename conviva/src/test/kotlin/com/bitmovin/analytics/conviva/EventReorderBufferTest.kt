@@ -0,0 +1,166 @@
+package com.bitmovin.analytics.conviva
+
+import android.os.Handler
+import android.os.Looper
+import io.mockk.every
+import io.mockk.just
+import io.mockk.mockk
+import io.mockk.mockkConstructor
+import io.mockk.mockkStatic
+import io.mockk.runs
+import io.mockk.unmockkConstructor
+import io.mockk.unmockkStatic
+import io.mockk.verify
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import strikt.api.expectThat
+import strikt.assertions.containsExactly
+import strikt.assertions.hasSize
+import strikt.assertions.isEmpty
+
+class EventReorderBufferTest {
+    private val handledEvents = mutableListOf<String>()
+    private val scheduledReleases = mutableListOf<Runnable>()
+    private val postedAccesses = mutableListOf<Runnable>()
+    private val mainLooper: Looper = mockk()
+    private val eventReorderBuffer = EventReorderBuffer(100)
+
+    @Before
+    fun beforeTest() {
+        mockkStatic(Looper::class)
+        every { Looper.getMainLooper() } returns mainLooper
+        every { Looper.myLooper() } returns mainLooper
+        mockkConstructor(Handler::class)
+        every { anyConstructed<Handler>().postDelayed(any(), any()) } answers {
+            scheduledReleases.add(firstArg())
+            true
+        }
+        every { anyConstructed<Handler>().removeCallbacks(any()) } just runs
+        every { anyConstructed<Handler>().post(any()) } answers {
+            postedAccesses.add(firstArg())
+            true
+        }
+    }
+
+    @After
+    fun afterTest() {
+        unmockkConstructor(Handler::class)
+        unmockkStatic(Looper::class)
+    }
+
+    @Test
+    fun `handles held back events in order once the window elapsed`() {
+        eventReorderBuffer.hold({ handledEvents.add("paused") }, true)
+        eventReorderBuffer.hold({ handledEvents.add("unloaded") }, false)
+        expectThat(handledEvents).isEmpty()
+
+        scheduledReleases.single().run()
+
+        expectThat(handledEvents).containsExactly("paused", "unloaded")
+    }
+
+    @Test
+    fun `handles held back events early on release`() {
+        eventReorderBuffer.hold({ handledEvents.add("paused") }, true)
+
+        eventReorderBuffer.release()
+
+        expectThat(handledEvents).containsExactly("paused")
+        verify { anyConstructed<Handler>().removeCallbacks(scheduledReleases.single()) }
+    }
+
+    @Test
+    fun `discards held back events superseded by an error`() {
+        eventReorderBuffer.hold({ handledEvents.add("paused") }, true)
+        eventReorderBuffer.hold({ handledEvents.add("unloaded") }, false)
+
+        eventReorderBuffer.discardSupersededByError()
+        handledEvents.add("error")
+        eventReorderBuffer.release()
+
+        expectThat(handledEvents).containsExactly("error", "unloaded")
+    }
+
+    @Test
+    fun `does not handle held back events after clearing`() {
+        eventReorderBuffer.hold({ handledEvents.add("paused") }, true)
+
+        eventReorderBuffer.clear()
+        eventReorderBuffer.release()
+
+        expectThat(handledEvents).isEmpty()
+    }
+
+    @Test
+    fun `posts clearing off the main thread to the main thread`() {
+        eventReorderBuffer.hold({ handledEvents.add("paused") }, true)
+        every { Looper.myLooper() } returns null
+
+        eventReorderBuffer.clear()
+        every { Looper.myLooper() } returns mainLooper
+        postedAccesses.single().run()
+        eventReorderBuffer.release()
+
+        expectThat(handledEvents).isEmpty()
+    }
+
+    @Test
+    fun `posts releasing off the main thread to the main thread`() {
+        eventReorderBuffer.hold({ handledEvents.add("paused") }, true)
+        every { Looper.myLooper() } returns null
+
+        eventReorderBuffer.release()
+        expectThat(handledEvents).isEmpty()
+
+        every { Looper.myLooper() } returns mainLooper
+        postedAccesses.single().run()
+        expectThat(handledEvents).containsExactly("paused")
+    }
+
+    @Test
+    fun `runs the action after releasing held back events off the main thread`() {
+        eventReorderBuffer.hold({ handledEvents.add("paused") }, true)
+        every { Looper.myLooper() } returns null
+
+        eventReorderBuffer.release { handledEvents.add("detached") }
+        expectThat(handledEvents).isEmpty()
+
+        every { Looper.myLooper() } returns mainLooper
+        postedAccesses.single().run()
+        expectThat(handledEvents).containsExactly("paused", "detached")
+    }
+
+    @Test
+    fun `runs the action after clearing held back events off the main thread`() {
+        eventReorderBuffer.hold({ handledEvents.add("paused") }, true)
+        every { Looper.myLooper() } returns null
+
+        eventReorderBuffer.clear { handledEvents.add("released") }
+        expectThat(handledEvents).isEmpty()
+
+        every { Looper.myLooper() } returns mainLooper
+        postedAccesses.single().run()
+        expectThat(handledEvents).containsExactly("released")
+        expectThat(scheduledReleases).hasSize(1)
+        verify { anyConstructed<Handler>().removeCallbacks(scheduledReleases.single()) }
+    }
+
+    @Test
+    fun `runs the action immediately if no event was held back`() {
+        every { Looper.myLooper() } returns null
+
+        eventReorderBuffer.clear { handledEvents.add("released") }
+
+        expectThat(handledEvents).containsExactly("released")
+        expectThat(postedAccesses).isEmpty()
+    }
+
+    @Test
+    fun `handles events immediately without a window`() {
+        EventReorderBuffer(0).hold({ handledEvents.add("paused") }, true)
+
+        expectThat(handledEvents).containsExactly("paused")
+        expectThat(scheduledReleases).isEmpty()
+    }
+}
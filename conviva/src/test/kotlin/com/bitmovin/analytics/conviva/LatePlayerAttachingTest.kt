@@ -16,6 +16,10 @@ import org.junit.AfterClass
 import org.junit.Before
 import org.junit.BeforeClass
 import org.junit.Test
+import strikt.api.expectThat
+import strikt.assertions.isEmpty
+import strikt.assertions.isNotEmpty
+import strikt.assertions.isTrue
 
 class LatePlayerAttachingTest {
     private val mockedPlayer: Player = mockk(relaxed = true)
@@ -43,6 +47,7 @@ class LatePlayerAttachingTest {
     @After
     fun afterTest() {
         clearMocks(mockedPlayer, ssaiApi, videoAnalytics, adAnalytics)
+        SharedConvivaSdk.reset()
     }
 
     @Test
@@ -67,6 +72,25 @@ class LatePlayerAttachingTest {
         verify { videoAnalytics.setContentInfo(any()) }
     }
 
+    @Test
+    fun `detaching the player and attaching another one keeps the session active`() {
+        val metadataOverride = MetadataOverrides()
+        metadataOverride.assetName = "MyAsset"
+        convivaAnalyticsIntegration.updateContentMetadata(metadataOverride)
+        convivaAnalyticsIntegration.attachPlayer(player)
+        convivaAnalyticsIntegration.initializeSession()
+
+        convivaAnalyticsIntegration.detachPlayer()
+        val otherPlayer = MockPlayer(mockedPlayer)
+        convivaAnalyticsIntegration.attachPlayer(otherPlayer)
+
+        expectThat(player.listeners.values.flatten()).isEmpty()
+        expectThat(otherPlayer.listeners.values.flatten()).isNotEmpty()
+        expectThat(convivaAnalyticsIntegration.sessionActive).isTrue()
+        verify(exactly = 0) { videoAnalytics.reportPlaybackEnded() }
+        verify { ssaiApi.setPlayer(null) }
+    }
+
     companion object {
         @JvmStatic
         @BeforeClass
@@ -0,0 +1,58 @@
+package com.bitmovin.analytics.conviva
+
+import com.bitmovin.analytics.conviva.helper.mockLogging
+import com.bitmovin.analytics.conviva.helper.unmockLogging
+import com.bitmovin.player.api.event.PlayerEvent
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import strikt.api.expectThat
+import strikt.assertions.containsExactly
+import strikt.assertions.isEqualTo
+import strikt.assertions.isTrue
+import java.util.concurrent.TimeUnit
+
+class PreSessionEventBufferTest {
+    private val buffer = PreSessionEventBuffer(2, 1000)
+    private val play = PlayerEvent.Play(0.0)
+    private val playing = PlayerEvent.Playing(0.0)
+    private val paused = PlayerEvent.Paused(1.0)
+
+    @Before
+    fun beforeTest() {
+        mockLogging()
+    }
+
+    @After
+    fun afterTest() {
+        unmockLogging()
+    }
+
+    @Test
+    fun `returns buffered events in order and empties the buffer`() {
+        buffer.add(play, 0)
+        buffer.add(playing, 0)
+
+        expectThat(buffer.take(0)).containsExactly(play, playing)
+        expectThat(buffer.isEmpty).isTrue()
+    }
+
+    @Test
+    fun `drops the oldest event if the buffer is full`() {
+        buffer.add(play, 0)
+        buffer.add(playing, 0)
+        buffer.add(paused, 0)
+
+        expectThat(buffer.take(0)).containsExactly(playing, paused)
+        expectThat(buffer.droppedEventCount).isEqualTo(1L)
+    }
+
+    @Test
+    fun `drops events exceeding the maximum age`() {
+        buffer.add(play, 0)
+        buffer.add(playing, TimeUnit.MILLISECONDS.toNanos(500))
+
+        expectThat(buffer.take(TimeUnit.MILLISECONDS.toNanos(1200))).containsExactly(playing)
+        expectThat(buffer.droppedEventCount).isEqualTo(1L)
+    }
+}
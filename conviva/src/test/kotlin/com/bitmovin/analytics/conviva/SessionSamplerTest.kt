@@ -0,0 +1,36 @@
+package com.bitmovin.analytics.conviva
+
+import org.junit.Test
+import strikt.api.expectThat
+import strikt.assertions.isEqualTo
+import strikt.assertions.isFalse
+import strikt.assertions.isIn
+import strikt.assertions.isTrue
+
+class SessionSamplerTest {
+    @Test
+    fun `tracks all sessions at a sampling rate of 1`() {
+        expectThat(SessionSampler(1.0).isSampled("viewer", "asset")).isTrue()
+    }
+
+    @Test
+    fun `tracks no session at a sampling rate of 0`() {
+        expectThat(SessionSampler(0.0).isSampled("viewer", "asset")).isFalse()
+    }
+
+    @Test
+    fun `decides deterministically for the same viewer and asset`() {
+        val decisions = (1..10).map { SessionSampler(0.5).isSampled("viewer", "asset") }
+
+        expectThat(decisions.distinct().size).isEqualTo(1)
+    }
+
+    @Test
+    fun `tracks about the configured share of sessions`() {
+        val sessionSampler = SessionSampler(0.25)
+
+        val sampledCount = (1..10_000).count { sessionSampler.isSampled("viewer-$it", "asset") }
+
+        expectThat(sampledCount).isIn(2_300..2_700)
+    }
+}
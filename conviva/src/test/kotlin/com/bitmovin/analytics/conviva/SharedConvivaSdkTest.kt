@@ -0,0 +1,81 @@
+package com.bitmovin.analytics.conviva
+
+import android.content.Context
+import android.util.Log
+import com.bitmovin.analytics.conviva.helper.mockLogging
+import com.bitmovin.analytics.conviva.helper.unmockLogging
+import com.conviva.sdk.ConvivaAnalytics
+import io.mockk.every
+import io.mockk.just
+import io.mockk.mockk
+import io.mockk.mockkStatic
+import io.mockk.runs
+import io.mockk.unmockkStatic
+import io.mockk.verify
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import strikt.api.expectThat
+import strikt.assertions.isEqualTo
+
+class SharedConvivaSdkTest {
+    private val context: Context = mockk()
+
+    @Before
+    fun beforeTest() {
+        mockLogging()
+        mockkStatic(ConvivaAnalytics::class)
+        every { ConvivaAnalytics.init(any<Context>(), any<String>(), any<Map<String, Any>>()) } just runs
+        every { ConvivaAnalytics.release() } just runs
+    }
+
+    @After
+    fun afterTest() {
+        SharedConvivaSdk.reset()
+        unmockkStatic(ConvivaAnalytics::class)
+        unmockLogging()
+    }
+
+    @Test
+    fun `initializes the SDK only once for multiple integrations`() {
+        repeat(4) { SharedConvivaSdk.acquire(context, "key", emptyMap()) }
+
+        verify(exactly = 1) { ConvivaAnalytics.init(any<Context>(), any<String>(), any<Map<String, Any>>()) }
+        expectThat(SharedConvivaSdk.getReferenceCount()).isEqualTo(4)
+    }
+
+    @Test
+    fun `releases the SDK only once it is not referenced anymore`() {
+        SharedConvivaSdk.acquire(context, "key", emptyMap())
+        SharedConvivaSdk.acquire(context, "key", emptyMap())
+
+        SharedConvivaSdk.releaseReference()
+        SharedConvivaSdk.releaseIfUnreferenced()
+        verify(exactly = 0) { ConvivaAnalytics.release() }
+
+        SharedConvivaSdk.releaseReference()
+        SharedConvivaSdk.releaseIfUnreferenced()
+        verify(exactly = 1) { ConvivaAnalytics.release() }
+    }
+
+    @Test
+    fun `warns if the SDK is acquired with different settings`() {
+        SharedConvivaSdk.acquire(context, "key", mapOf("gatewayUrl" to "https://first.example.com"))
+
+        SharedConvivaSdk.acquire(context, "key", mapOf("gatewayUrl" to "https://second.example.com"))
+
+        verify(exactly = 1) { ConvivaAnalytics.init(any<Context>(), any<String>(), any<Map<String, Any>>()) }
+        verify { Log.w(any(), match<String> { it.contains("different settings") }) }
+    }
+
+    @Test
+    fun `initializes the SDK again after it was released`() {
+        SharedConvivaSdk.acquire(context, "key", emptyMap())
+        SharedConvivaSdk.releaseReference()
+        SharedConvivaSdk.releaseIfUnreferenced()
+
+        SharedConvivaSdk.acquire(context, "key", emptyMap())
+
+        verify(exactly = 2) { ConvivaAnalytics.init(any<Context>(), any<String>(), any<Map<String, Any>>()) }
+    }
+}
@@ -21,8 +21,10 @@ class MockPlayer(private val player: Player) : Player by player {
         listeners[eventClass.kotlin] = listeners[eventClass.kotlin].orEmpty() + eventListener::onEvent as (Event) -> Unit
     }
 
+    // Like the player, removing a listener without an event type removes it from all event types
+    // it was registered for.
     override fun <E : Event> off(action: (E) -> Unit) {
-        listeners.entries.removeIf { it.value == action as (Event) -> Unit }
+        listeners.replaceAll { _, actions -> actions - action as (Event) -> Unit }
     }
 
     override fun <E : Event> off(eventClass: KClass<E>, action: (E) -> Unit) {
@@ -30,7 +32,7 @@ class MockPlayer(private val player: Player) : Player by player {
     }
 
     override fun <E : Event> off(eventListener: EventListener<in E>) {
-        listeners.entries.removeIf { it.value == eventListener::onEvent as (Event) -> Unit }
+        listeners.replaceAll { _, actions -> actions - eventListener::onEvent as (Event) -> Unit }
     }
 
     override fun <E : Event> off(eventClass: Class<E>, eventListener: EventListener<in E>) {
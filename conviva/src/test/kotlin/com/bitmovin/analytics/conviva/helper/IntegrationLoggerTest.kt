@@ -0,0 +1,63 @@
+package com.bitmovin.analytics.conviva.helper
+
+import android.util.Log
+import io.mockk.verify
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import strikt.api.expectThat
+import strikt.assertions.isFalse
+import strikt.assertions.isTrue
+
+class IntegrationLoggerTest {
+    @Before
+    fun beforeTest() {
+        mockLogging()
+    }
+
+    @After
+    fun afterTest() {
+        IntegrationLogger.reset()
+        unmockLogging()
+    }
+
+    @Test
+    fun `does not log debug messages if debug logging is disabled`() {
+        IntegrationLogger.d("tag", "message")
+        IntegrationLogger.d("tag", "message ", 1)
+
+        verify(exactly = 0) { Log.d(any(), any()) }
+    }
+
+    @Test
+    fun `logs debug messages if debug logging is enabled`() {
+        IntegrationLogger.enableDebug()
+
+        IntegrationLogger.d("tag", "message ", 1)
+
+        verify { Log.d("tag", "message 1") }
+    }
+
+    @Test
+    fun `keeps debug logging enabled until every caller disabled it`() {
+        IntegrationLogger.enableDebug()
+        IntegrationLogger.enableDebug()
+
+        IntegrationLogger.disableDebug()
+        expectThat(IntegrationLogger.isDebugEnabled()).isTrue()
+
+        IntegrationLogger.disableDebug()
+        IntegrationLogger.disableDebug()
+        expectThat(IntegrationLogger.isDebugEnabled()).isFalse()
+
+        IntegrationLogger.enableDebug()
+        expectThat(IntegrationLogger.isDebugEnabled()).isTrue()
+    }
+
+    @Test
+    fun `always logs warnings`() {
+        IntegrationLogger.w("tag", "warning")
+
+        verify { Log.w("tag", "warning") }
+    }
+}
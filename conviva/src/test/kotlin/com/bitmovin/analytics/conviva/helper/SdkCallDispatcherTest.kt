@@ -0,0 +1,129 @@
+package com.bitmovin.analytics.conviva.helper
+
+import org.junit.AfterClass
+import org.junit.BeforeClass
+import org.junit.Test
+import strikt.api.expectThat
+import strikt.assertions.isEqualTo
+import strikt.assertions.isFalse
+import strikt.assertions.isTrue
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class SdkCallDispatcherTest {
+    @Test
+    fun `direct dispatcher executes calls on the calling thread`() {
+        val dispatcher = SdkCallDispatcher.direct()
+        var executingThread: Thread? = null
+
+        dispatcher.dispatch("reportPlaybackRequested") { executingThread = Thread.currentThread() }
+
+        expectThat(executingThread).isEqualTo(Thread.currentThread())
+        expectThat(dispatcher.isBackground).isFalse()
+    }
+
+    @Test
+    fun `background dispatcher executes calls in order`() {
+        val dispatcher = SdkCallDispatcher.background(100)
+        val executedCalls = Collections.synchronizedList(mutableListOf<Int>())
+        val done = CountDownLatch(1)
+
+        repeat(50) { index -> dispatcher.dispatch("reportAppEvent") { executedCalls.add(index) } }
+        dispatcher.dispatch("release") { done.countDown() }
+
+        expectThat(done.await(5, TimeUnit.SECONDS)).isTrue()
+        expectThat(executedCalls.toList()).isEqualTo((0 until 50).toList())
+        expectThat(dispatcher.isBackground).isTrue()
+        dispatcher.shutdown()
+    }
+
+    @Test
+    fun `background dispatcher drops droppable calls exceeding the queue capacity`() {
+        val dispatcher = SdkCallDispatcher.background(2)
+        val blocked = CountDownLatch(1)
+        val started = CountDownLatch(1)
+
+        dispatcher.dispatch("reportPlaybackRequested") {
+            started.countDown()
+            blocked.await()
+        }
+        started.await(5, TimeUnit.SECONDS)
+        repeat(5) { dispatcher.dispatchDroppable("reportPlaybackMetric") { } }
+
+        expectThat(dispatcher.droppedCallCount).isEqualTo(3L)
+        blocked.countDown()
+        dispatcher.shutdown()
+    }
+
+    @Test
+    fun `background dispatcher never drops lifecycle calls when the queue is full`() {
+        val dispatcher = SdkCallDispatcher.background(2)
+        val blocked = CountDownLatch(1)
+        val started = CountDownLatch(1)
+        val executedCalls = Collections.synchronizedList(mutableListOf<String>())
+        val done = CountDownLatch(1)
+
+        dispatcher.dispatch("reportPlaybackRequested") {
+            started.countDown()
+            blocked.await()
+        }
+        started.await(5, TimeUnit.SECONDS)
+        repeat(5) { dispatcher.dispatchDroppable("reportPlaybackMetric") { executedCalls.add("reportPlaybackMetric") } }
+        dispatcher.dispatch("reportPlaybackRequested") { executedCalls.add("reportPlaybackRequested") }
+        dispatcher.dispatch("reportAdBreakStarted") { executedCalls.add("reportAdBreakStarted") }
+        dispatcher.dispatch("reportPlaybackEnded") { executedCalls.add("reportPlaybackEnded") }
+        dispatcher.dispatch("release") { done.countDown() }
+        blocked.countDown()
+
+        expectThat(done.await(5, TimeUnit.SECONDS)).isTrue()
+        expectThat(executedCalls.toList()).isEqualTo(
+            listOf(
+                "reportPlaybackMetric",
+                "reportPlaybackMetric",
+                "reportPlaybackRequested",
+                "reportAdBreakStarted",
+                "reportPlaybackEnded",
+            ),
+        )
+        expectThat(dispatcher.droppedCallCount).isEqualTo(3L)
+        dispatcher.shutdown()
+    }
+
+    @Test
+    fun `background dispatcher executes the following calls after a call failed`() {
+        val dispatcher = SdkCallDispatcher.background(2)
+        val done = CountDownLatch(1)
+
+        dispatcher.dispatch("reportPlaybackRequested") { throw IllegalStateException("failure") }
+        dispatcher.dispatch("reportPlaybackEnded") { done.countDown() }
+
+        expectThat(done.await(5, TimeUnit.SECONDS)).isTrue()
+        dispatcher.shutdown()
+    }
+
+    @Test
+    fun `direct dispatcher catches failing calls`() {
+        val dispatcher = SdkCallDispatcher.direct()
+        var executed = false
+
+        dispatcher.dispatch("reportPlaybackRequested") { throw IllegalStateException("failure") }
+        dispatcher.dispatch("reportPlaybackEnded") { executed = true }
+
+        expectThat(executed).isTrue()
+    }
+
+    companion object {
+        @JvmStatic
+        @BeforeClass
+        fun beforeClass() {
+            mockLogging()
+        }
+
+        @JvmStatic
+        @AfterClass
+        fun afterClass() {
+            unmockLogging()
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.bitmovin.analytics.conviva.helper
+
+import com.bitmovin.analytics.conviva.helper.SessionStateMachine.State
+import org.junit.Test
+import strikt.api.expectThat
+import strikt.assertions.isEqualTo
+import strikt.assertions.isFalse
+import strikt.assertions.isTrue
+
+class SessionStateMachineTest {
+    private val sessionState = SessionStateMachine()
+
+    @Test
+    fun `follows the session lifecycle`() {
+        expectThat(sessionState.requestSession()).isTrue()
+        expectThat(sessionState.isSessionActive).isTrue()
+        expectThat(sessionState.startPlaying()).isTrue()
+        expectThat(sessionState.state).isEqualTo(State.PLAYING)
+        expectThat(sessionState.endSession()).isTrue()
+        expectThat(sessionState.state).isEqualTo(State.ENDED)
+        expectThat(sessionState.isSessionActive).isFalse()
+        expectThat(sessionState.requestSession()).isTrue()
+        expectThat(sessionState.illegalTransitionCount).isEqualTo(0L)
+    }
+
+    @Test
+    fun `ends a session which is not tracked`() {
+        expectThat(sessionState.sampleOut()).isTrue()
+        expectThat(sessionState.isSampledOut).isTrue()
+        expectThat(sessionState.isSessionActive).isFalse()
+        expectThat(sessionState.requestSession()).isFalse()
+        expectThat(sessionState.endSession()).isTrue()
+        expectThat(sessionState.requestSession()).isTrue()
+        expectThat(sessionState.illegalTransitionCount).isEqualTo(1L)
+    }
+
+    @Test
+    fun `rejects and counts illegal transitions`() {
+        expectThat(sessionState.startPlaying()).isFalse()
+        expectThat(sessionState.state).isEqualTo(State.IDLE)
+        expectThat(sessionState.illegalTransitionCount).isEqualTo(1L)
+    }
+
+    @Test
+    fun `does not count transitions to the current state`() {
+        sessionState.requestSession()
+
+        expectThat(sessionState.requestSession()).isFalse()
+        expectThat(sessionState.illegalTransitionCount).isEqualTo(0L)
+    }
+
+    @Test
+    fun `returns to the session state after an ad break`() {
+        sessionState.requestSession()
+
+        expectThat(sessionState.startAdBreak(State.CLIENT_AD_BREAK)).isTrue()
+        expectThat(sessionState.state).isEqualTo(State.CLIENT_AD_BREAK)
+        expectThat(sessionState.finishAdBreak(State.CLIENT_AD_BREAK)).isTrue()
+        expectThat(sessionState.state).isEqualTo(State.REQUESTED)
+    }
+
+    @Test
+    fun `rejects an ad break while another one is active`() {
+        sessionState.startAdBreak(State.SSAI_BREAK)
+
+        expectThat(sessionState.startAdBreak(State.CLIENT_AD_BREAK)).isFalse()
+        expectThat(sessionState.isInAdBreak(State.SSAI_BREAK)).isTrue()
+        expectThat(sessionState.illegalTransitionCount).isEqualTo(1L)
+    }
+
+    @Test
+    fun `keeps the ad break while tracking is paused`() {
+        sessionState.requestSession()
+        sessionState.startAdBreak(State.SSAI_BREAK)
+
+        sessionState.pauseTracking(true)
+        expectThat(sessionState.state).isEqualTo(State.PAUSED_TRACKING)
+        expectThat(sessionState.isInAdBreak(State.SSAI_BREAK)).isTrue()
+
+        expectThat(sessionState.resumeTracking()).isTrue()
+        expectThat(sessionState.state).isEqualTo(State.SSAI_BREAK)
+        expectThat(sessionState.isBumper).isTrue()
+    }
+
+    @Test
+    fun `ends a client side ad break and paused tracking with the session`() {
+        sessionState.requestSession()
+        sessionState.startAdBreak(State.CLIENT_AD_BREAK)
+        sessionState.pauseTracking(false)
+
+        sessionState.endSession()
+
+        expectThat(sessionState.state).isEqualTo(State.ENDED)
+    }
+
+    @Test
+    fun `reports backgrounded changes only once`() {
+        expectThat(sessionState.setBackgrounded(true)).isTrue()
+        expectThat(sessionState.setBackgrounded(true)).isFalse()
+        expectThat(sessionState.setBackgrounded(false)).isTrue()
+    }
+}
@@ -0,0 +1,69 @@
+package com.bitmovin.analytics.conviva.replay
+
+import com.bitmovin.analytics.conviva.helper.mockLogging
+import com.bitmovin.analytics.conviva.helper.unmockLogging
+import org.junit.AfterClass
+import org.junit.Assume.assumeTrue
+import org.junit.BeforeClass
+import org.junit.Test
+import strikt.api.expectThat
+import strikt.assertions.isEqualTo
+import strikt.assertions.isGreaterThan
+import java.io.File
+
+/**
+ * Replays the bundled sample trace once to check the reported Conviva SDK calls. The throughput
+ * report for the trace given via the `conviva.replay.trace` system property is only measured and
+ * printed if requested. Run with `./gradlew :conviva:testDebugUnitTest --tests '*EventReplayTest'
+ * -PreplayTrace=/path/to/recorded.trace`.
+ */
+class EventReplayTest {
+    @Test
+    fun `replays the sample event trace`() {
+        val trace = EventTrace.read(javaClass.getResourceAsStream(SAMPLE_TRACE)!!.reader())
+
+        val report = ReplayHarness(trace).replay(1)
+
+        expectThat(report.events).isEqualTo(trace.eventCount.toLong())
+        expectThat(report.sdkCallCounts["video.reportPlaybackRequested"]).isEqualTo(1)
+        expectThat(report.sdkCallCounts["video.reportPlaybackError"]).isEqualTo(1)
+    }
+
+    @Test
+    fun `reports the throughput of a recorded event trace`() {
+        val tracePath = System.getProperty(TRACE_PROPERTY)
+        assumeTrue("No trace given via -PreplayTrace", tracePath != null)
+        val trace = EventTrace.read(File(tracePath!!).reader())
+
+        val report = ReplayHarness(trace).replay(ITERATIONS)
+        println(report)
+
+        expectThat(report.events).isEqualTo(trace.eventCount.toLong() * ITERATIONS)
+        expectThat(report.sdkCalls).isGreaterThan(0)
+    }
+
+    @Test
+    fun `reads time changed ranges`() {
+        val trace = EventTrace.read("TimeChanged 1.0 2.0".reader())
+
+        expectThat(trace.entries.map { it.time }).isEqualTo(listOf(1.0, 1.25, 1.5, 1.75, 2.0))
+    }
+
+    companion object {
+        private const val TRACE_PROPERTY = "conviva.replay.trace"
+        private const val SAMPLE_TRACE = "/replay/vod-with-ads.trace"
+        private const val ITERATIONS = 20
+
+        @JvmStatic
+        @BeforeClass
+        fun beforeClass() {
+            mockLogging()
+        }
+
+        @JvmStatic
+        @AfterClass
+        fun afterClass() {
+            unmockLogging()
+        }
+    }
+}
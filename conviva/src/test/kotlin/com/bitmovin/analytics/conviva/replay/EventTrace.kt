@@ -0,0 +1,151 @@
+package com.bitmovin.analytics.conviva.replay
+
+import com.bitmovin.player.api.advertising.AdBreak
+import com.bitmovin.player.api.advertising.AdSourceType
+import com.bitmovin.player.api.deficiency.PlayerErrorCode
+import com.bitmovin.player.api.event.Event
+import com.bitmovin.player.api.event.PlayerEvent
+import com.bitmovin.player.api.event.data.SeekPosition
+import com.bitmovin.player.api.media.video.quality.VideoQuality
+import io.mockk.every
+import io.mockk.mockk
+import java.io.Reader
+
+/**
+ * A recorded player event sequence.
+ *
+ * Traces are stored in a line based text format. Each line holds one event type followed by its
+ * arguments separated by spaces, lines starting with `#` are comments:
+ *
+ * ```
+ * Play 0.0
+ * Playing 0.0
+ * TimeChanged 0.0 30.0      # one TimeChanged event every 0.25 s from 0.0 s to 30.0 s
+ * VideoQuality 720p 1280 720 3000000
+ * Seek 30.0 120.0
+ * Seeked
+ * AdBreakStarted 120.0
+ * AdStarted 15.0
+ * AdFinished
+ * AdBreakFinished
+ * StallStarted
+ * StallEnded
+ * Paused 130.0
+ * Error General Network request failed
+ * PlaybackFinished
+ * ```
+ */
+class EventTrace(val entries: List<TraceEntry>) {
+    val eventCount: Int
+        get() = entries.size
+
+    companion object {
+        const val TIME_CHANGED_INTERVAL = 0.25
+
+        fun read(reader: Reader): EventTrace {
+            val entries = mutableListOf<TraceEntry>()
+            val state = ReplayState()
+            reader.buffered().useLines { lines ->
+                lines.forEachIndexed { index, rawLine ->
+                    val line = rawLine.substringBefore('#').trim()
+                    if (line.isEmpty()) {
+                        return@forEachIndexed
+                    }
+                    try {
+                        parseLine(line, state, entries)
+                    } catch (e: RuntimeException) {
+                        throw IllegalArgumentException("Invalid trace line ${index + 1}: $rawLine", e)
+                    }
+                }
+            }
+            return EventTrace(entries)
+        }
+
+        private fun parseLine(line: String, state: ReplayState, entries: MutableList<TraceEntry>) {
+            val parts = line.split(' ').filter { it.isNotEmpty() }
+            val args = parts.drop(1)
+            fun add(event: Event) = entries.add(TraceEntry(event, state.time, state.videoQuality))
+
+            when (parts[0]) {
+                "Play" -> add(PlayerEvent.Play(args[0].toDouble()))
+                "Playing" -> add(PlayerEvent.Playing(args[0].toDouble()))
+                "Paused" -> add(PlayerEvent.Paused(args[0].toDouble()))
+                "TimeChanged" -> {
+                    val from = args[0].toDouble()
+                    val to = args.getOrNull(1)?.toDouble() ?: from
+                    var time = from
+                    while (time <= to) {
+                        state.time = time
+                        add(PlayerEvent.TimeChanged(time))
+                        time += TIME_CHANGED_INTERVAL
+                    }
+                }
+                "VideoQuality" -> {
+                    val oldVideoQuality = state.videoQuality
+                    state.videoQuality = createVideoQuality(args[0], args[1].toInt(), args[2].toInt(), args[3].toInt())
+                    add(PlayerEvent.VideoPlaybackQualityChanged(oldVideoQuality, state.videoQuality))
+                }
+                "Seek" -> {
+                    add(PlayerEvent.Seek(seekPosition(args[0].toDouble()), seekPosition(args[1].toDouble())))
+                    state.time = args[1].toDouble()
+                }
+                "Seeked" -> add(PlayerEvent.Seeked())
+                "StallStarted" -> add(PlayerEvent.StallStarted())
+                "StallEnded" -> add(PlayerEvent.StallEnded())
+                "AdBreakStarted" -> {
+                    state.adBreak = createAdBreak(args[0].toDouble())
+                    add(PlayerEvent.AdBreakStarted(state.adBreak))
+                }
+                "AdStarted" -> add(
+                        PlayerEvent.AdStarted(
+                                clientType = AdSourceType.Bitmovin,
+                                clickThroughUrl = null,
+                                duration = args[0].toDouble(),
+                                timeOffset = state.adBreak?.scheduleTime ?: state.time,
+                                position = null,
+                                skipOffset = 0.0,
+                                ad = null,
+                                indexInQueue = 0,
+                        )
+                )
+                "AdFinished" -> add(PlayerEvent.AdFinished(null))
+                "AdBreakFinished" -> {
+                    add(PlayerEvent.AdBreakFinished(state.adBreak))
+                    state.adBreak = null
+                }
+                "Error" -> add(PlayerEvent.Error(PlayerErrorCode.valueOf(args[0]), args.drop(1).joinToString(" ")))
+                "PlaybackFinished" -> add(PlayerEvent.PlaybackFinished())
+                else -> throw IllegalArgumentException("Unknown event type ${parts[0]}")
+            }
+        }
+
+        private fun seekPosition(time: Double) = SeekPosition(mockk(relaxed = true), time)
+
+        private fun createAdBreak(scheduleTime: Double): AdBreak = mockk(relaxed = true) {
+            every { this@mockk.scheduleTime } returns scheduleTime
+        }
+
+        private fun createVideoQuality(id: String, width: Int, height: Int, bitrate: Int) = VideoQuality(
+                id = id,
+                label = id,
+                bitrate = bitrate,
+                averageBitrate = bitrate,
+                peakBitrate = bitrate,
+                codec = "avc1",
+                frameRate = 30F,
+                width = width,
+                height = height,
+        )
+    }
+
+    private class ReplayState {
+        var time = 0.0
+        var videoQuality: VideoQuality? = null
+        var adBreak: AdBreak? = null
+    }
+}
+
+/**
+ * A single event of a trace together with the player state at the time the event was emitted.
+ */
+class TraceEntry(val event: Event, val time: Double, val videoQuality: VideoQuality?)
@@ -0,0 +1,90 @@
+package com.bitmovin.analytics.conviva.replay
+
+import com.bitmovin.player.api.Player
+import com.bitmovin.player.api.event.Event
+import com.bitmovin.player.api.event.EventListener
+import com.bitmovin.player.api.event.PlayerEvent
+import java.util.Locale
+
+/**
+ * Records the events of a [Player] in the [EventTrace] format.
+ *
+ * Consecutive `TimeChanged` events are coalesced into a single range line. Attach the recorder
+ * before loading a source and call [finish] once playback is done, e.g. from an instrumented test
+ * with a real player.
+ */
+class EventTraceRecorder(private val player: Player, private val output: Appendable) {
+    private var timeChangedFrom: Double? = null
+    private var timeChangedTo = 0.0
+
+    private val listener = EventListener<Event> { record(it) }
+
+    fun start() {
+        RECORDED_EVENTS.forEach { player.on(it, listener) }
+    }
+
+    fun finish() {
+        player.off(listener)
+        flushTimeChanged()
+    }
+
+    private fun record(event: Event) {
+        if (event is PlayerEvent.TimeChanged) {
+            if (timeChangedFrom == null) {
+                timeChangedFrom = event.time
+            }
+            timeChangedTo = event.time
+            return
+        }
+        flushTimeChanged()
+
+        val line = when (event) {
+            is PlayerEvent.Play -> "Play ${format(event.time)}"
+            is PlayerEvent.Playing -> "Playing ${format(event.time)}"
+            is PlayerEvent.Paused -> "Paused ${format(event.time)}"
+            is PlayerEvent.VideoPlaybackQualityChanged -> event.newVideoQuality?.let {
+                "VideoQuality ${it.id.replace(' ', '_')} ${it.width} ${it.height} ${it.bitrate}"
+            }
+            is PlayerEvent.Seek -> "Seek ${format(event.from.time)} ${format(event.to.time)}"
+            is PlayerEvent.Seeked -> "Seeked"
+            is PlayerEvent.StallStarted -> "StallStarted"
+            is PlayerEvent.StallEnded -> "StallEnded"
+            is PlayerEvent.AdBreakStarted -> "AdBreakStarted ${format(event.adBreak?.scheduleTime ?: 0.0)}"
+            is PlayerEvent.AdStarted -> "AdStarted ${format(event.duration)}"
+            is PlayerEvent.AdFinished -> "AdFinished"
+            is PlayerEvent.AdBreakFinished -> "AdBreakFinished"
+            is PlayerEvent.Error -> "Error ${event.code.name} ${event.message.replace('\n', ' ')}"
+            is PlayerEvent.PlaybackFinished -> "PlaybackFinished"
+            else -> null
+        }
+        line?.let { output.append(it).append('\n') }
+    }
+
+    private fun flushTimeChanged() {
+        val from = timeChangedFrom ?: return
+        output.append("TimeChanged ${format(from)} ${format(timeChangedTo)}\n")
+        timeChangedFrom = null
+    }
+
+    private fun format(value: Double) = String.format(Locale.ROOT, "%.3f", value)
+
+    companion object {
+        private val RECORDED_EVENTS = listOf(
+                PlayerEvent.Play::class.java,
+                PlayerEvent.Playing::class.java,
+                PlayerEvent.Paused::class.java,
+                PlayerEvent.TimeChanged::class.java,
+                PlayerEvent.VideoPlaybackQualityChanged::class.java,
+                PlayerEvent.Seek::class.java,
+                PlayerEvent.Seeked::class.java,
+                PlayerEvent.StallStarted::class.java,
+                PlayerEvent.StallEnded::class.java,
+                PlayerEvent.AdBreakStarted::class.java,
+                PlayerEvent.AdStarted::class.java,
+                PlayerEvent.AdFinished::class.java,
+                PlayerEvent.AdBreakFinished::class.java,
+                PlayerEvent.Error::class.java,
+                PlayerEvent.PlaybackFinished::class.java,
+        )
+    }
+}
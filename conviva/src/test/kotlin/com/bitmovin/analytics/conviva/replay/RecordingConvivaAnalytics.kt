@@ -0,0 +1,50 @@
+package com.bitmovin.analytics.conviva.replay
+
+import com.conviva.sdk.ConvivaAdAnalytics
+import com.conviva.sdk.ConvivaVideoAnalytics
+import io.mockk.every
+import io.mockk.mockk
+
+/**
+ * Fakes of the Conviva video and ad analytics which count the calls per SDK method.
+ */
+class RecordingConvivaAnalytics {
+    private val callCounts = LinkedHashMap<String, Int>()
+
+    val callCountsByMethod: Map<String, Int>
+        get() = callCounts
+
+    val totalCallCount: Int
+        get() = callCounts.values.sum()
+
+    val videoAnalytics: ConvivaVideoAnalytics = mockk(relaxed = true) {
+        every { metadataInfo } returns emptyMap()
+        every { reportPlaybackRequested(any()) } answers { record("video.reportPlaybackRequested") }
+        every { reportPlaybackEnded() } answers { record("video.reportPlaybackEnded") }
+        every { setContentInfo(any()) } answers { record("video.setContentInfo") }
+        every { reportPlaybackMetric(any(), *anyVararg()) } answers { record("video.reportPlaybackMetric") }
+        every { reportPlaybackError(any(), any()) } answers { record("video.reportPlaybackError") }
+        every { reportPlaybackEvent(any()) } answers { record("video.reportPlaybackEvent") }
+        every { reportAdBreakStarted(any(), any()) } answers { record("video.reportAdBreakStarted") }
+        every { reportAdBreakEnded() } answers { record("video.reportAdBreakEnded") }
+    }
+
+    val adAnalytics: ConvivaAdAnalytics = mockk(relaxed = true) {
+        every { reportAdLoaded(any()) } answers { record("ad.reportAdLoaded") }
+        every { reportAdStarted(any()) } answers { record("ad.reportAdStarted") }
+        every { reportAdEnded() } answers { record("ad.reportAdEnded") }
+        every { reportAdSkipped() } answers { record("ad.reportAdSkipped") }
+        every { reportAdFailed(any()) } answers { record("ad.reportAdFailed") }
+        every { reportAdError(any(), any()) } answers { record("ad.reportAdError") }
+        every { reportAdMetric(any(), *anyVararg()) } answers { record("ad.reportAdMetric") }
+        every { setAdInfo(any()) } answers { record("ad.setAdInfo") }
+    }
+
+    fun reset() {
+        callCounts.clear()
+    }
+
+    private fun record(method: String) {
+        callCounts[method] = (callCounts[method] ?: 0) + 1
+    }
+}
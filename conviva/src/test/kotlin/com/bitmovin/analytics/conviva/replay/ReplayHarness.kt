@@ -0,0 +1,112 @@
+package com.bitmovin.analytics.conviva.replay
+
+import com.bitmovin.analytics.conviva.ConvivaAnalyticsIntegration
+import com.bitmovin.analytics.conviva.ConvivaConfig
+import com.bitmovin.analytics.conviva.MetadataOverrides
+import com.bitmovin.analytics.conviva.fixtures.MockPlayer
+import com.bitmovin.player.api.Player
+import io.mockk.every
+import io.mockk.mockk
+import java.lang.management.ManagementFactory
+
+/**
+ * Replays an [EventTrace] against a [ConvivaAnalyticsIntegration] on the JVM and measures the
+ * throughput of the integration.
+ *
+ * The Conviva SDK is replaced by [RecordingConvivaAnalytics]. The overhead of the mocks is part of
+ * the measurement, so only compare reports produced by the same harness.
+ */
+class ReplayHarness(
+        private val trace: EventTrace,
+        private val configFactory: () -> ConvivaConfig = { ConvivaConfig() },
+) {
+    fun replay(iterations: Int = 1): ReplayReport {
+        val sdk = RecordingConvivaAnalytics()
+        var replayedEvents = 0L
+        var durationNanos = 0L
+        var allocatedBytes = 0L
+
+        repeat(iterations) {
+            var time = 0.0
+            var videoQuality = trace.entries.firstOrNull()?.videoQuality
+            val mockedPlayer: Player = mockk(relaxed = true) {
+                every { currentTime } answers { time }
+                every { playbackVideoData } answers { videoQuality }
+                every { source } returns null
+            }
+            val player = MockPlayer(mockedPlayer)
+            val integration = ConvivaAnalyticsIntegration(
+                    player,
+                    "",
+                    mockk(),
+                    configFactory().apply {
+                        // Held back events are released immediately as there is no looper on the JVM
+                        eventReorderWindowMs = 0
+                    },
+                    sdk.videoAnalytics,
+                    sdk.adAnalytics,
+                    null,
+            )
+            integration.updateContentMetadata(MetadataOverrides().apply { assetName = "Replay" })
+
+            val allocatedBytesBefore = currentThreadAllocatedBytes()
+            val startNanos = System.nanoTime()
+            for (entry in trace.entries) {
+                time = entry.time
+                videoQuality = entry.videoQuality
+                player.listeners[entry.event::class]?.forEach { it(entry.event) }
+            }
+            durationNanos += System.nanoTime() - startNanos
+            allocatedBytes += currentThreadAllocatedBytes() - allocatedBytesBefore
+            replayedEvents += trace.eventCount
+
+            integration.release()
+        }
+
+        return ReplayReport(
+                events = replayedEvents,
+                durationNanos = durationNanos,
+                sdkCallCounts = sdk.callCountsByMethod.toMap(),
+                allocatedBytes = allocatedBytes,
+        )
+    }
+
+    private fun currentThreadAllocatedBytes(): Long {
+        val threadMXBean = ManagementFactory.getThreadMXBean()
+        return if (threadMXBean is com.sun.management.ThreadMXBean && threadMXBean.isThreadAllocatedMemorySupported) {
+            threadMXBean.getThreadAllocatedBytes(Thread.currentThread().id)
+        } else {
+            -1
+        }
+    }
+}
+
+class ReplayReport(
+        val events: Long,
+        val durationNanos: Long,
+        val sdkCallCounts: Map<String, Int>,
+        /**
+         * Bytes allocated by the replaying thread, or a negative value if not supported by the JVM.
+         */
+        val allocatedBytes: Long,
+) {
+    val sdkCalls: Long
+        get() = sdkCallCounts.values.sumOf { it.toLong() }
+
+    val eventsPerSecond: Double
+        get() = events * 1_000_000_000.0 / durationNanos.coerceAtLeast(1)
+
+    val sdkCallsPerEvent: Double
+        get() = sdkCalls.toDouble() / events.coerceAtLeast(1)
+
+    val allocatedBytesPerEvent: Double
+        get() = allocatedBytes.toDouble() / events.coerceAtLeast(1)
+
+    override fun toString() = buildString {
+        appendLine("Replayed events:   $events")
+        appendLine("Events/s:          ${"%.0f".format(eventsPerSecond)}")
+        appendLine("SDK calls/event:   ${"%.3f".format(sdkCallsPerEvent)}")
+        appendLine("Allocated B/event: ${if (allocatedBytes < 0) "n/a" else "%.1f".format(allocatedBytesPerEvent)}")
+        sdkCallCounts.forEach { (method, count) -> appendLine("  $method: $count") }
+    }
+}
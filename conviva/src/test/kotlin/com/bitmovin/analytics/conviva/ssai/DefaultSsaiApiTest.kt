@@ -1,6 +1,9 @@
 package com.bitmovin.analytics.conviva.ssai
 
 import com.bitmovin.analytics.conviva.PlayerDecorator
+import com.bitmovin.analytics.conviva.helper.ReportedPlayerStates
+import com.bitmovin.analytics.conviva.helper.SdkCallDispatcher
+import com.bitmovin.analytics.conviva.helper.SessionStateMachine
 import com.bitmovin.analytics.conviva.helper.mockLogging
 import com.bitmovin.analytics.conviva.helper.unmockLogging
 import com.conviva.sdk.ConvivaAdAnalytics
@@ -40,6 +43,7 @@ class DefaultSsaiApiTest {
                 ConvivaSdkConstants.PLAYBACK.RESOLUTION to arrayOf(800, 1600),
                 ConvivaSdkConstants.PLAYBACK.RENDERED_FRAMERATE to arrayOf(60),
         )
+        every { playerDecorator.playbackVideoQuality } answers { callOriginal() }
         with(adAnalytics) {
             every { reportAdMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, any()) } just runs
             every { reportAdMetric(ConvivaSdkConstants.PLAYBACK.RESOLUTION, any(), any()) } just runs
@@ -285,6 +289,44 @@ class DefaultSsaiApiTest {
         expectThat(ssaiApi.isAdBreakActive).isFalse()
     }
 
+    @Test
+    fun `shares the ad player state reported on ad start with the integration`() {
+        val reportedPlayerStates = ReportedPlayerStates()
+        val sharingSsaiApi = DefaultSsaiApi(
+                videoAnalytics,
+                adAnalytics,
+                SdkCallDispatcher.direct(),
+                SessionStateMachine(),
+                reportedPlayerStates,
+        )
+        sharingSsaiApi.setPlayer(playerDecorator)
+        sharingSsaiApi.reportAdBreakStarted()
+
+        sharingSsaiApi.reportAdStarted(SsaiApi.AdInfo())
+
+        verify(exactly = 1) {
+            adAnalytics.reportAdMetric(ConvivaSdkConstants.PLAYBACK.PLAYER_STATE, ConvivaSdkConstants.PlayerState.PLAYING)
+        }
+        expectThat(reportedPlayerStates.transitionAdState(ConvivaSdkConstants.PlayerState.PLAYING)).isFalse()
+
+        sharingSsaiApi.reportAdFinished()
+
+        expectThat(reportedPlayerStates.transitionAdState(ConvivaSdkConstants.PlayerState.PLAYING)).isTrue()
+    }
+
+    @Test
+    fun `skips calls while the analytics are not initialized`() {
+        val uninitializedSsaiApi = DefaultSsaiApi(null, null)
+        uninitializedSsaiApi.setPlayer(playerDecorator)
+
+        uninitializedSsaiApi.reportAdBreakStarted()
+        uninitializedSsaiApi.reportAdStarted(SsaiApi.AdInfo())
+        uninitializedSsaiApi.reportAdFinished()
+        uninitializedSsaiApi.reportAdBreakFinished()
+
+        expectThat(uninitializedSsaiApi.isAdBreakActive).isFalse()
+    }
+
     companion object {
         @JvmStatic
         @BeforeClass